@@ -0,0 +1,18 @@
+package com.bankapp.auth;
+
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Подключение логики мока к приложению Spring Boot без HTTP: @Import(AuthCoreConfiguration.class).
+ * Регистрирует хранилище клиентов, сессии, кластер, задержки, ограничения пропускной способности, сценарии и метрики;
+ * приложение должно предоставить MeterRegistry. Вход в логику — AuthService, настройки — те же auth.*,
+ * что в application.properties auth-service (у всех есть значения по умолчанию).
+ */
+@Configuration
+@ComponentScan(basePackages = {"com.bankapp.auth.cluster", "com.bankapp.auth.repository",
+        "com.bankapp.auth.service", "com.bankapp.auth.util"})
+@ImportRuntimeHints(AuthCoreRuntimeHints.class)
+public class AuthCoreConfiguration {
+}
@@ -0,0 +1,43 @@
+package com.bankapp.auth;
+
+import com.bankapp.auth.model.Account;
+import com.bankapp.auth.model.CapacityLimits;
+import com.bankapp.auth.model.Client;
+import com.bankapp.auth.model.LatencyDistribution;
+import com.bankapp.auth.model.LatencyScenario;
+import com.bankapp.auth.service.BatchAuthService;
+import com.bankapp.auth.service.ClientSeedService;
+import com.bankapp.auth.service.LatencyScenarioService;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Подсказки для native-образа: Jackson читает и пишет модели (геттеры и сеттеры Lombok) через отражение,
+ * а javafaker разворачивает выражения из своих yml вызовом методов по имени.
+ * Типы, которые контроллеры принимают и возвращают напрямую, Spring находит сам; здесь — вложенные
+ * в Map, CompletableFuture и NDJSON-импорт.
+ */
+class AuthCoreRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+        bindings.registerReflectionHints(hints.reflection(),
+                Client.class, Account.class, CapacityLimits.class, LatencyDistribution.class, LatencyScenario.class,
+                ClientSeedService.Result.class, ClientSeedService.ClientImport.class,
+                LatencyScenarioService.Progress.class, LatencyScenarioService.EffectiveTimeout.class,
+                BatchAuthService.RegisterItem.class, BatchAuthService.LoginItem.class, BatchAuthService.ItemResult.class);
+        // Варианты распределений и сегментов Jackson выбирает по полю type — их тоже нужно описать
+        bindings.registerReflectionHints(hints.reflection(), LatencyDistribution.class.getPermittedSubclasses());
+        bindings.registerReflectionHints(hints.reflection(), LatencyScenario.Segment.class.getPermittedSubclasses());
+
+        hints.resources().registerPattern("*.yml");
+        hints.resources().registerPattern("en/*.yml");
+        for (String type : new String[]{"com.github.javafaker.Faker", "com.github.javafaker.Name"}) {
+            hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.bankapp.auth.cluster;
+
+import com.bankapp.auth.model.Client;
+import com.bankapp.auth.repository.ClientCodec;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Двоичный протокол между узлами кластера поверх TCP.
+ * После подключения клиент отправляет MAGIC и VERSION, дальше обе стороны обмениваются кадрами:
+ * int длина (без самого поля), byte тип, long номер запроса (0 — сообщение без ответа), тело.
+ * Строки и клиенты в теле — в формате ClientCodec, ответ несет номер запроса, на который отвечает.
+ * Клиенты в ответах и в репликации сессий передаются без пароля и хеша пароля;
+ * целиком (с паролем или хешем) клиент уходит только владельцу логина — при наполнении и импорте (STORE).
+ */
+final class ClusterProtocol {
+
+    static final int MAGIC = 0x41434C55; // "ACLU"
+    static final int VERSION = 2; // Версия 2 добавила STORE
+    static final int MAX_FRAME = 16 << 20;
+
+    private static final int HEADER_SIZE = 4 + 1 + 8;
+
+    // Запросы к владельцу логина
+    static final byte REGISTER = 1; // fullName, phone, username, password
+    static final byte LOGIN = 2; // username, password
+    static final byte STORE = 5; // client с паролем или хешем — наполнение и импорт
+    // Репликация сессий, без ответа
+    static final byte SESSION_OPEN = 3; // token, client без пароля и хеша
+    static final byte SESSION_CLOSE = 4; // token
+    // Ответы
+    static final byte CLIENT = 65; // client без пароля и хеша
+    static final byte EMPTY = 66; // неверный логин или пароль
+    static final byte DUPLICATE = 67; // username
+    static final byte OVERLOADED = 68; // пул хеширования владельца переполнен
+    static final byte FAILED = 69; // message
+    static final byte STORED = 70; // клиент из STORE сохранен (логин занят — DUPLICATE)
+
+    // Принятый кадр: тип, номер запроса и тело
+    record Frame(byte type, long id, ByteBuffer body) {
+    }
+
+    private ClusterProtocol() {
+    }
+
+    static ByteBuffer strings(byte type, long id, String... values) {
+        int size = HEADER_SIZE;
+        for (String value : values) {
+            size += 4 + ClientCodec.maxLength(value);
+        }
+        ByteBuffer buffer = header(size, type, id);
+        for (String value : values) {
+            ClientCodec.putString(buffer, value);
+        }
+        return finish(buffer);
+    }
+
+    // Кадр с клиентом: пароль и хеш пароля не передаются
+    static ByteBuffer client(byte type, long id, String token, Client client) {
+        return encode(type, id, token, withoutCredentials(client));
+    }
+
+    // Кадр STORE: клиент целиком, вместе с паролем или хешем, — только для узла-владельца логина
+    static ByteBuffer store(long id, Client client) {
+        return encode(STORE, id, null, client);
+    }
+
+    private static ByteBuffer encode(byte type, long id, String token, Client client) {
+        int size = HEADER_SIZE + (token != null ? 4 + ClientCodec.maxLength(token) : 0) + ClientCodec.maxEncodedSize(client);
+        ByteBuffer buffer = header(size, type, id);
+        if (token != null) {
+            ClientCodec.putString(buffer, token);
+        }
+        ClientCodec.encode(client, buffer);
+        return finish(buffer);
+    }
+
+    // Копия клиента для сессии и ответов: ID, имя, телефон, логин и счета, без пароля и хеша
+    static Client withoutCredentials(Client client) {
+        if (client.getPassword() == null && client.getPasswordHash() == null) {
+            return client;
+        }
+        Client copy = new Client(client.getId(), client.getFullName(), client.getPhone(), client.getUsername(), null);
+        copy.getAccounts().addAll(client.getAccounts());
+        return copy;
+    }
+
+    static String readString(ByteBuffer body) {
+        return ClientCodec.getString(body, new byte[1][64]);
+    }
+
+    static Client readClient(ByteBuffer body) {
+        int length = body.getInt();
+        if (length > body.remaining()) {
+            throw new IllegalStateException("Corrupted client: length " + length);
+        }
+        return ClientCodec.decode(body, new byte[1][64], ClientCodec.VERSION);
+    }
+
+    static void writeHandshake(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.flush();
+    }
+
+    static void readHandshake(DataInputStream in) throws IOException {
+        int magic = in.readInt();
+        int version = in.readInt();
+        if (magic != MAGIC || version != VERSION) {
+            throw new IOException("Unsupported cluster protocol: magic " + Integer.toHexString(magic) + ", version " + version);
+        }
+    }
+
+    // Записывает кадр в поток без сброса: вызывающий сбрасывает буфер после пачки кадров
+    static void write(DataOutputStream out, ByteBuffer frame) throws IOException {
+        out.write(frame.array(), frame.arrayOffset() + frame.position(), frame.remaining());
+    }
+
+    // Читает следующий кадр; EOFException — соединение закрыто
+    static Frame read(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < HEADER_SIZE - 4 || length > MAX_FRAME) {
+            throw new IOException("Invalid cluster frame length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte type = buffer.get();
+        long id = buffer.getLong();
+        return new Frame(type, id, buffer.slice());
+    }
+
+    private static ByteBuffer header(int size, byte type, long id) {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(0);
+        buffer.put(type);
+        buffer.putLong(id);
+        return buffer;
+    }
+
+    private static ByteBuffer finish(ByteBuffer buffer) {
+        buffer.putInt(0, buffer.position() - 4);
+        return buffer.flip();
+    }
+}
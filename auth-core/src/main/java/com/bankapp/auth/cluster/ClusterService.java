@@ -0,0 +1,377 @@
+package com.bankapp.auth.cluster;
+
+import com.bankapp.auth.cluster.ClusterProtocol.Frame;
+import com.bankapp.auth.model.Client;
+import com.bankapp.auth.repository.DuplicateUsernameException;
+import com.bankapp.auth.service.ClientService;
+import com.bankapp.auth.util.SessionManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Несколько экземпляров мока как один сервис (auth.cluster.enabled=true).
+ * Клиенты распределены по узлам согласованным хешированием логина: регистрация и проверка пароля
+ * выполняются на узле-владельце, остальные узлы пересылают их по двоичному протоколу (ClusterProtocol).
+ * Сессия создается на узле, принявшем вход, и асинхронно копируется на все остальные узлы,
+ * поэтому isLogged, user и logout работают через любой узел за балансировщиком.
+ * Готовые клиенты из наполнения и импорта (store) тоже сохраняются на узле-владельце логина.
+ * Без кластера все вызовы выполняются локально.
+ */
+@Service
+public class ClusterService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterService.class);
+
+    private final boolean enabled;
+    private final String self;
+    private final List<String> members;
+    private final int virtualNodes;
+    private final Duration requestTimeout;
+    private final int queueSize;
+    private final ClientService clientService;
+    private final SessionManager sessionManager;
+    private final MeterRegistry meterRegistry;
+
+    private HashRing ring;
+    // Ключ — адрес узла (host:port), без этого узла
+    private final Map<String, PeerClient> peers = new LinkedHashMap<>();
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private ServerSocket server;
+    private Counter forwardedRegister;
+    private Counter forwardedLogin;
+    private Counter forwardedStore;
+
+    public ClusterService(@Value("${auth.cluster.enabled:false}") boolean enabled,
+                          @Value("${auth.cluster.self:localhost:9082}") String self,
+                          @Value("${auth.cluster.members:}") String members,
+                          @Value("${auth.cluster.virtual-nodes:128}") int virtualNodes,
+                          @Value("${auth.cluster.request-timeout:5s}") Duration requestTimeout,
+                          @Value("${auth.cluster.queue-size:65536}") int queueSize,
+                          ClientService clientService, SessionManager sessionManager, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.self = self.trim();
+        this.members = Arrays.stream(members.split(",")).map(String::trim).filter(member -> !member.isEmpty())
+                .distinct().toList();
+        this.virtualNodes = virtualNodes;
+        this.requestTimeout = requestTimeout;
+        this.queueSize = queueSize;
+        this.clientService = clientService;
+        this.sessionManager = sessionManager;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (!members.contains(self)) {
+            throw new IllegalStateException("auth.cluster.members must include auth.cluster.self (" + self + ")");
+        }
+        ring = new HashRing(members, virtualNodes);
+        for (String member : members) {
+            if (!member.equals(self)) {
+                peers.put(member, new PeerClient(member, requestTimeout, queueSize));
+            }
+        }
+        forwardedRegister = forwardedCounter("register");
+        forwardedLogin = forwardedCounter("login");
+        forwardedStore = forwardedCounter("store");
+        FunctionCounter.builder("auth_cluster_replication_dropped_total", peers,
+                        map -> map.values().stream().mapToLong(PeerClient::dropped).sum())
+                .description("Session replication messages lost because a peer queue was full or a peer was down")
+                .register(meterRegistry);
+        Gauge.builder("auth_cluster_peers_connected", peers,
+                        map -> map.values().stream().filter(PeerClient::isConnected).count())
+                .description("Cluster peers with an open outgoing connection")
+                .register(meterRegistry);
+
+        // Слушаем порт из адреса этого узла на всех интерфейсах
+        server = new ServerSocket();
+        server.setReuseAddress(true);
+        server.bind(new InetSocketAddress(parseAddress(self).getPort()));
+        Thread acceptor = new Thread(this::acceptLoop, "auth-cluster-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Cluster node {} started, members {}", self, members);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Узел-владелец логина (без кластера — этот узел)
+    public String ownerOf(String username) {
+        return enabled ? ring.owner(username) : self;
+    }
+
+    // Регистрация на узле-владельце логина; занятый логин — DuplicateUsernameException, как и локально
+    public CompletableFuture<Client> register(String fullName, String phone, String username, String password) {
+        PeerClient owner = peerFor(username);
+        if (owner == null) {
+            return clientService.registerAsync(fullName, phone, username, password);
+        }
+        forwardedRegister.increment();
+        long id = owner.nextId();
+        return owner.request(id, ClusterProtocol.strings(ClusterProtocol.REGISTER, id, fullName, phone, username, password))
+                .thenApply(response -> switch (response.type()) {
+                    case ClusterProtocol.CLIENT -> ClusterProtocol.readClient(response.body());
+                    default -> throw remoteError(response);
+                });
+    }
+
+    // Проверка пароля на узле-владельце логина; пустой результат — неверный логин или пароль
+    public CompletableFuture<Optional<Client>> login(String username, String password) {
+        PeerClient owner = peerFor(username);
+        if (owner == null) {
+            return clientService.loginAsync(username, password);
+        }
+        forwardedLogin.increment();
+        long id = owner.nextId();
+        return owner.request(id, ClusterProtocol.strings(ClusterProtocol.LOGIN, id, username, password))
+                .thenApply(response -> switch (response.type()) {
+                    case ClusterProtocol.CLIENT -> Optional.of(ClusterProtocol.readClient(response.body()));
+                    case ClusterProtocol.EMPTY -> Optional.empty();
+                    default -> throw remoteError(response);
+                });
+    }
+
+    // Логин принадлежит этому узлу (без кластера — любой логин)
+    public boolean owns(String username) {
+        return peerFor(username) == null;
+    }
+
+    /**
+     * Сохраняет готового клиента (наполнение, импорт) на узле-владельце логина, как ClientService.insert:
+     * true — клиент создан, false — логин уже занят; отклоненный клиент или недоступный владелец — ошибка future.
+     */
+    public CompletableFuture<Boolean> store(Client client) {
+        PeerClient owner = peerFor(client.getUsername());
+        if (owner == null) {
+            try {
+                return CompletableFuture.completedFuture(clientService.insert(client));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        forwardedStore.increment();
+        long id = owner.nextId();
+        return owner.request(id, ClusterProtocol.store(id, client))
+                .thenApply(response -> switch (response.type()) {
+                    case ClusterProtocol.STORED -> true;
+                    case ClusterProtocol.DUPLICATE -> false;
+                    default -> throw remoteError(response);
+                });
+    }
+
+    // Создает сессию на этом узле и копирует ее на остальные
+    public String openSession(Client client) {
+        String token = sessionManager.login(client);
+        if (enabled && !peers.isEmpty()) {
+            ByteBuffer frame = ClusterProtocol.client(ClusterProtocol.SESSION_OPEN, 0, token, client);
+            peers.values().forEach(peer -> peer.post(frame.duplicate()));
+        }
+        return token;
+    }
+
+    // Завершает сессию на этом узле и на остальных; false — на этом узле такой сессии не было
+    public boolean closeSession(String token) {
+        boolean removed = sessionManager.logout(token);
+        if (enabled && token != null && !peers.isEmpty()) {
+            ByteBuffer frame = ClusterProtocol.strings(ClusterProtocol.SESSION_CLOSE, 0, token);
+            peers.values().forEach(peer -> peer.post(frame.duplicate()));
+        }
+        return removed;
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (server != null) {
+            server.close();
+        }
+        connections.forEach(ClusterService::closeQuietly);
+        peers.values().forEach(PeerClient::close);
+    }
+
+    // host:port → адрес без разрешения имени (имя разрешается при каждом подключении); без host — localhost
+    static InetSocketAddress parseAddress(String member) {
+        int colon = member.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Cluster member must be host:port, got '" + member + "'");
+        }
+        String host = colon == 0 ? "localhost" : member.substring(0, colon);
+        return InetSocketAddress.createUnresolved(host, Integer.parseInt(member.substring(colon + 1)));
+    }
+
+    // Соединение к владельцу логина или null, если логин принадлежит этому узлу
+    private PeerClient peerFor(String username) {
+        if (!enabled || username == null) {
+            return null;
+        }
+        String owner = ring.owner(username);
+        return owner.equals(self) ? null : peers.get(owner);
+    }
+
+    private Counter forwardedCounter(String operation) {
+        return Counter.builder("auth_cluster_forwarded_total")
+                .description("Requests forwarded to the cluster member owning the username")
+                .tags("operation", operation)
+                .register(meterRegistry);
+    }
+
+    // Ошибка владельца в виде того же исключения, что и при локальной обработке
+    private static RuntimeException remoteError(Frame response) {
+        return switch (response.type()) {
+            case ClusterProtocol.DUPLICATE -> new DuplicateUsernameException(ClusterProtocol.readString(response.body()));
+            case ClusterProtocol.OVERLOADED -> new RejectedExecutionException("Credential pool of the owner is full");
+            case ClusterProtocol.FAILED -> new IllegalStateException("Cluster owner failed: "
+                    + ClusterProtocol.readString(response.body()));
+            default -> new IllegalStateException("Unexpected cluster response type " + response.type());
+        };
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                Thread reader = new Thread(() -> serve(socket), "auth-cluster-server-" + socket.getRemoteSocketAddress());
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    log.warn("Cluster accept failed: {}", e.toString());
+                }
+            }
+        }
+    }
+
+    // Читает кадры соседа; ответы пишутся из потоков, завершивших обработку, под блокировкой потока вывода
+    private void serve(Socket socket) {
+        connections.add(socket);
+        try (socket) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+            ClusterProtocol.readHandshake(in);
+            while (true) {
+                handle(ClusterProtocol.read(in), out);
+            }
+        } catch (EOFException e) {
+            log.debug("Cluster peer {} disconnected", socket.getRemoteSocketAddress());
+        } catch (IOException | RuntimeException e) {
+            if (!socket.isClosed()) {
+                log.warn("Cluster peer {} connection failed: {}", socket.getRemoteSocketAddress(), e.toString());
+            }
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    private void handle(Frame frame, DataOutputStream out) {
+        ByteBuffer body = frame.body();
+        switch (frame.type()) {
+            case ClusterProtocol.REGISTER -> {
+                String fullName = ClusterProtocol.readString(body);
+                String phone = ClusterProtocol.readString(body);
+                String username = ClusterProtocol.readString(body);
+                String password = ClusterProtocol.readString(body);
+                completeLater(() -> clientService.registerAsync(fullName, phone, username, password)
+                                .thenApply(client -> ClusterProtocol.client(ClusterProtocol.CLIENT, frame.id(), null, client)),
+                        frame.id(), out);
+            }
+            case ClusterProtocol.LOGIN -> {
+                String username = ClusterProtocol.readString(body);
+                String password = ClusterProtocol.readString(body);
+                completeLater(() -> clientService.loginAsync(username, password)
+                                .thenApply(client -> client.isPresent()
+                                        ? ClusterProtocol.client(ClusterProtocol.CLIENT, frame.id(), null, client.get())
+                                        : ClusterProtocol.strings(ClusterProtocol.EMPTY, frame.id())),
+                        frame.id(), out);
+            }
+            case ClusterProtocol.STORE -> {
+                Client client = ClusterProtocol.readClient(body);
+                completeLater(() -> CompletableFuture.completedFuture(clientService.insert(client)
+                                ? ClusterProtocol.strings(ClusterProtocol.STORED, frame.id())
+                                : ClusterProtocol.strings(ClusterProtocol.DUPLICATE, frame.id(), client.getUsername())),
+                        frame.id(), out);
+            }
+            case ClusterProtocol.SESSION_OPEN -> {
+                String token = ClusterProtocol.readString(body);
+                sessionManager.open(token, ClusterProtocol.readClient(body));
+            }
+            case ClusterProtocol.SESSION_CLOSE -> sessionManager.logout(ClusterProtocol.readString(body));
+            default -> log.warn("Unknown cluster frame type {}", frame.type());
+        }
+    }
+
+    // Отправляет ответ по завершении обработки; исключение превращается в кадр ошибки
+    private static void completeLater(Supplier<CompletableFuture<ByteBuffer>> work, long id, DataOutputStream out) {
+        CompletableFuture<ByteBuffer> result;
+        try {
+            result = work.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((frame, error) -> {
+            ByteBuffer response = frame != null ? frame : errorFrame(id, error);
+            synchronized (out) {
+                try {
+                    ClusterProtocol.write(out, response);
+                    out.flush();
+                } catch (IOException e) {
+                    log.debug("Cluster response {} not delivered: {}", id, e.toString());
+                }
+            }
+        });
+    }
+
+    private static ByteBuffer errorFrame(long id, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof DuplicateUsernameException duplicate) {
+            return ClusterProtocol.strings(ClusterProtocol.DUPLICATE, id, duplicate.getUsername());
+        }
+        if (cause instanceof RejectedExecutionException) {
+            return ClusterProtocol.strings(ClusterProtocol.OVERLOADED, id);
+        }
+        return ClusterProtocol.strings(ClusterProtocol.FAILED, id, String.valueOf(cause));
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Соединение уже закрыто
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.bankapp.auth.cluster;
+
+// Исключение: узел, которому принадлежит логин, недоступен или не ответил вовремя
+public class ClusterUnavailableException extends RuntimeException {
+
+    private final String member; // Адрес узла (host:port)
+
+    public ClusterUnavailableException(String member, String message, Throwable cause) {
+        super("Cluster member " + member + ": " + message, cause);
+        this.member = member;
+    }
+
+    public String getMember() {
+        return member;
+    }
+}
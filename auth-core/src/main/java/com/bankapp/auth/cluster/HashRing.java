@@ -0,0 +1,70 @@
+package com.bankapp.auth.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Неизменяемое кольцо согласованного хеширования: у каждого узла virtualNodes точек на кольце,
+ * владелец ключа — узел первой точки не меньше хеша ключа. При добавлении или удалении узла
+ * меняет владельца только около 1/N ключей. Поиск — двоичный по отсортированному массиву без аллокаций.
+ */
+public final class HashRing {
+
+    private final List<String> members;
+    private final long[] points; // Точки кольца по возрастанию
+    private final int[] owners; // Индекс узла в members для каждой точки
+
+    public HashRing(List<String> members, int virtualNodes) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("Cluster must have at least one member");
+        }
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        this.members = List.copyOf(members);
+        int size = members.size() * virtualNodes;
+        long[][] entries = new long[size][];
+        for (int member = 0; member < members.size(); member++) {
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                entries[member * virtualNodes + replica] = new long[]{hash(members.get(member) + "#" + replica), member};
+            }
+        }
+        // Совпадение точек разных узлов разрешается по индексу узла, чтобы кольцо было одинаковым на всех узлах
+        Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        this.points = new long[size];
+        this.owners = new int[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = entries[i][0];
+            owners[i] = (int) entries[i][1];
+        }
+    }
+
+    // Узел, которому принадлежит ключ
+    public String owner(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return members.get(owners[index == points.length ? 0 : index]);
+    }
+
+    public List<String> members() {
+        return members;
+    }
+
+    // 64-битный FNV-1a по байтам UTF-8 с перемешиванием из MurmurHash3 (fmix64): не зависит от JVM и String.hashCode
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
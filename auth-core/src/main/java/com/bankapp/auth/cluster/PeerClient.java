@@ -0,0 +1,220 @@
+package com.bankapp.auth.cluster;
+
+import com.bankapp.auth.cluster.ClusterProtocol.Frame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Соединение с одним узлом кластера. Кадры от потоков запросов ставятся в очередь, поток-писатель
+ * подключается (и переподключается после обрыва), пишет накопившиеся кадры одной пачкой и сбрасывает буфер.
+ * Поток-читатель завершает future запросов по номеру из ответа. Порядок кадров сохраняется,
+ * поэтому открытие и закрытие одной сессии приходят к узлу в том же порядке.
+ */
+final class PeerClient {
+
+    private static final Logger log = LoggerFactory.getLogger(PeerClient.class);
+    private static final int CONNECT_TIMEOUT_MS = 1_000;
+    private static final long RETRY_DELAY_MS = 1_000;
+    private static final int BATCH_SIZE = 256;
+
+    // Кадр в очереди: id = 0 — сообщение без ответа
+    private record Outgoing(long id, ByteBuffer frame) {
+    }
+
+    private final String member;
+    private final InetSocketAddress address;
+    private final Duration requestTimeout;
+    private final BlockingQueue<Outgoing> outbox;
+    private final Map<Long, CompletableFuture<Frame>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong(); // Сообщения без ответа, потерянные из-за очереди или обрыва
+    private final Thread writer;
+
+    // Поля соединения меняет только поток-писатель
+    private volatile Socket socket;
+    private DataOutputStream out;
+    private volatile boolean closed;
+
+    PeerClient(String member, Duration requestTimeout, int queueSize) {
+        this.member = member;
+        this.address = ClusterService.parseAddress(member);
+        this.requestTimeout = requestTimeout;
+        this.outbox = new ArrayBlockingQueue<>(queueSize);
+        this.writer = new Thread(this::writeLoop, "auth-cluster-peer-" + member);
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    long nextId() {
+        return ids.incrementAndGet();
+    }
+
+    /**
+     * Отправляет запрос с номером id и возвращает future ответа.
+     * Нет соединения, переполнена очередь или истек request-timeout — ClusterUnavailableException.
+     */
+    CompletableFuture<Frame> request(long id, ByteBuffer frame) {
+        CompletableFuture<Frame> response = new CompletableFuture<>();
+        pending.put(id, response);
+        if (closed || !outbox.offer(new Outgoing(id, frame))) {
+            pending.remove(id);
+            return CompletableFuture.failedFuture(new ClusterUnavailableException(member, "send queue is full", null));
+        }
+        return response.orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, error) -> pending.remove(id))
+                .exceptionallyCompose(error -> CompletableFuture.failedFuture(error instanceof TimeoutException
+                        ? new ClusterUnavailableException(member, "no response in " + requestTimeout, error) : error));
+    }
+
+    // Ставит в очередь сообщение без ответа; false — очередь переполнена
+    boolean post(ByteBuffer frame) {
+        if (!closed && outbox.offer(new Outgoing(0, frame))) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+
+    boolean isConnected() {
+        Socket current = socket;
+        return current != null && !current.isClosed();
+    }
+
+    void close() {
+        closed = true;
+        writer.interrupt();
+        disconnect(new ClusterUnavailableException(member, "client closed", null));
+    }
+
+    private void writeLoop() {
+        List<Outgoing> batch = new ArrayList<>(BATCH_SIZE);
+        while (!closed) {
+            try {
+                batch.add(outbox.take());
+                outbox.drainTo(batch, BATCH_SIZE - 1);
+                if (!isConnected() && !connect()) {
+                    fail(batch, "not reachable");
+                    Thread.sleep(RETRY_DELAY_MS);
+                    continue;
+                }
+                for (Outgoing outgoing : batch) {
+                    ClusterProtocol.write(out, outgoing.frame());
+                }
+                out.flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                log.warn("Cluster member {} write failed: {}", member, e.toString());
+                disconnect(new ClusterUnavailableException(member, "connection lost", e));
+                fail(batch, "connection lost");
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private boolean connect() {
+        Socket candidate = new Socket();
+        try {
+            candidate.setTcpNoDelay(true);
+            candidate.setKeepAlive(true);
+            candidate.connect(new InetSocketAddress(address.getHostString(), address.getPort()), CONNECT_TIMEOUT_MS);
+            out = new DataOutputStream(new BufferedOutputStream(candidate.getOutputStream(), 64 * 1024));
+            ClusterProtocol.writeHandshake(out);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(candidate.getInputStream(), 64 * 1024));
+            socket = candidate;
+            Thread reader = new Thread(() -> readLoop(candidate, in), "auth-cluster-reader-" + member);
+            reader.setDaemon(true);
+            reader.start();
+            log.info("Connected to cluster member {}", member);
+            return true;
+        } catch (IOException e) {
+            closeQuietly(candidate);
+            log.debug("Cluster member {} is not reachable: {}", member, e.toString());
+            return false;
+        }
+    }
+
+    private void readLoop(Socket current, DataInputStream in) {
+        try {
+            while (true) {
+                Frame frame = ClusterProtocol.read(in);
+                CompletableFuture<Frame> response = pending.remove(frame.id());
+                if (response != null) {
+                    response.complete(frame);
+                }
+            }
+        } catch (EOFException e) {
+            log.info("Cluster member {} closed the connection", member);
+        } catch (IOException e) {
+            if (!current.isClosed()) {
+                log.warn("Cluster member {} read failed: {}", member, e.toString());
+            }
+        }
+        if (socket == current) {
+            disconnect(new ClusterUnavailableException(member, "connection lost", null));
+        }
+    }
+
+    // Закрывает соединение и завершает ошибкой все запросы, ожидающие ответа
+    private void disconnect(ClusterUnavailableException error) {
+        Socket current = socket;
+        socket = null;
+        if (current != null) {
+            closeQuietly(current);
+        }
+        for (Long id : pending.keySet()) {
+            CompletableFuture<Frame> response = pending.remove(id);
+            if (response != null) {
+                response.completeExceptionally(error);
+            }
+        }
+    }
+
+    private void fail(List<Outgoing> batch, String reason) {
+        for (Outgoing outgoing : batch) {
+            if (outgoing.id() == 0) {
+                dropped.incrementAndGet();
+                continue;
+            }
+            CompletableFuture<Frame> response = pending.remove(outgoing.id());
+            if (response != null) {
+                response.completeExceptionally(new ClusterUnavailableException(member, reason, null));
+            }
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Соединение уже закрыто
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.bankapp.auth.model;
+
+// Импорты необходимых библиотек
+import com.bankapp.auth.util.IdGenerator; // Общий генератор идентификаторов и номеров
+import com.fasterxml.jackson.annotation.JsonCreator; // Конструктор, через который Jackson создает аккаунт
+import com.fasterxml.jackson.annotation.JsonProperty; // Имена полей JSON для параметров конструктора
+import com.fasterxml.jackson.annotation.JsonIgnore; // Служебное поле не попадает в JSON
+import lombok.AccessLevel; // Уровень доступа для отключения геттера и сеттера служебного поля
+import lombok.Data; // Аннотация Lombok для автоматической генерации геттеров, сеттеров, toString и др.
+import lombok.EqualsAndHashCode; // Исключение служебного поля из equals и hashCode
+import lombok.Getter; // Настройка геттера служебного поля
+import lombok.Setter; // Настройка сеттера служебного поля
+import lombok.ToString; // Исключение служебного поля из toString
+
+// Аннотация Lombok @Data автоматически создает геттеры, сеттеры, equals, hashCode и toString
+@Data
+public class Account {
+    // Поля класса для хранения данных об аккаунте
+    private String id; // Уникальный идентификатор аккаунта
+    private String accountNumber; // Номер счета (уникальный, 12 цифр)
+    private String cardNumber; // Номер карты (уникальный, 16 цифр, проходит проверку Луна)
+    private double balance; // Баланс счета
+    // Переданный номер счета или карты уже был занят (результат резервирования, не сохраняется)
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient boolean numbersTaken;
+
+    // Конструктор без параметров
+    public Account() {
+        IdGenerator ids = IdGenerator.current();
+        // Генерируем уникальный ID для аккаунта (стратегия задается auth.ids.strategy)
+        this.id = ids.nextId();
+        // Генерируем номер счета: 12 цифр, генератор не выдает один номер дважды
+        this.accountNumber = ids.nextAccountNumber();
+        // Генерируем номер карты: 16 цифр с контрольной цифрой по алгоритму Луна
+        this.cardNumber = ids.nextCardNumber();
+    }
+
+    // Конструктор для восстановления сохраненного или импортированного аккаунта (в том числе из JSON):
+    // генерируются только незаданные поля, переданные номера резервируются.
+    // Повтор номера при восстановлении журнала ожидаем, а импорт и наполнение отклоняют такой счет (hasTakenNumbers)
+    @JsonCreator
+    public Account(@JsonProperty("id") String id,
+                   @JsonProperty("accountNumber") String accountNumber,
+                   @JsonProperty("cardNumber") String cardNumber,
+                   @JsonProperty("balance") double balance) {
+        IdGenerator ids = IdGenerator.current();
+        this.id = id != null ? id : ids.nextId();
+        this.accountNumber = accountNumber != null ? accountNumber : ids.nextAccountNumber();
+        this.cardNumber = cardNumber != null ? cardNumber : ids.nextCardNumber();
+        this.balance = balance;
+        // Номера восстановленного счета больше не выдаются новым счетам
+        this.numbersTaken = !ids.reserve(accountNumber, cardNumber);
+    }
+
+    // Переданный в конструктор номер счета или карты уже был выдан или зарезервирован другим счетом
+    public boolean hasTakenNumbers() {
+        return numbersTaken;
+    }
+
+    // Геттер для ID аккаунта (возвращает уникальный идентификатор)
+    public String getId() {
+        return id;
+    }
+
+    // Геттер для номера счета (возвращает номер счета)
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    // Геттер для номера карты (возвращает номер карты)
+    public String getCardNumber() {
+        return cardNumber;
+    }
+
+    // Геттер для баланса (возвращает текущий баланс счета)
+    public double getBalance() {
+        return balance;
+    }
+
+    // Сеттер для баланса (позволяет установить новое значение баланса)
+    public void setBalance(double balance) {
+        this.balance = balance;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.bankapp.auth.model;
+
+/**
+ * Ограничения пропускной способности одного действия (эмуляция насыщения реального сервиса).
+ * ratePerSecond — средняя частота запросов (0 — без ограничения), burst — сколько запросов можно принять подряд,
+ * maxConcurrency — одновременно выполняемых запросов (0 — без ограничения), maxQueue — ожидающих свободного места,
+ * queueTimeoutMs — максимальное ожидание в очереди (0 — без ограничения).
+ */
+public record CapacityLimits(double ratePerSecond, int burst, int maxConcurrency, int maxQueue, long queueTimeoutMs) {
+
+    public CapacityLimits {
+        if (!(ratePerSecond >= 0) || Double.isInfinite(ratePerSecond)) {
+            throw new IllegalArgumentException("ratePerSecond must be a non-negative number");
+        }
+        if (burst < 0 || maxConcurrency < 0 || maxQueue < 0 || queueTimeoutMs < 0) {
+            throw new IllegalArgumentException("burst, maxConcurrency, maxQueue and queueTimeoutMs must be non-negative");
+        }
+        // Пачка не меньше одного запроса, иначе при ограничении частоты не пройдет ни один
+        burst = Math.max(burst, 1);
+    }
+}
@@ -1,10 +1,11 @@
 package com.bankapp.auth.model;
 
 // Импорты необходимых библиотек
+import com.bankapp.auth.util.IdGenerator; // Общий генератор идентификаторов
+import com.fasterxml.jackson.annotation.JsonIgnore; // Исключение поля из JSON-ответов
 import lombok.Data; // Аннотация Lombok для автоматической генерации геттеров, сеттеров, toString и др.
 import java.util.ArrayList; // Класс Java для работы с динамическими списками
 import java.util.List; // Интерфейс для работы со списками
-import java.util.UUID; // Класс Java для генерации уникальных идентификаторов
 
 // Аннотация Lombok @Data автоматически создает геттеры, сеттеры, equals, hashCode и toString
 @Data
@@ -14,13 +15,16 @@ public class Client {
     private String fullName; // Полное имя клиента (например, "Иван Иванов")
     private String phone; // Номер телефона клиента (например, "+79001112233")
     private String username; // Уникальный логин клиента (например, "user1")
-    private String password; // Пароль клиента (например, "pass1")
+    @JsonIgnore
+    private volatile String password; // Пароль как есть: нужен для plain, после хеширования не хранится (null)
+    @JsonIgnore
+    private volatile String passwordHash; // Хеш пароля (pbkdf2/bcrypt/scrypt), null при проверке паролей как есть
     private List<Account> accounts = new ArrayList<>(); // Список счетов клиента (инициализируется пустым)
 
     // Конструктор для создания нового клиента с указанными данными
     public Client(String fullName, String phone, String username, String password) {
-        // Генерируем уникальный ID для клиента с помощью UUID
-        this.id = UUID.randomUUID().toString();
+        // Генерируем уникальный ID для клиента (стратегия задается auth.ids.strategy)
+        this.id = IdGenerator.current().nextId();
         // Сохраняем переданные данные в поля класса
         this.fullName = fullName;
         this.phone = phone;
@@ -29,6 +33,15 @@ public class Client {
         // Список счетов уже инициализирован как пустой ArrayList
     }
 
+    // Конструктор для восстановления сохраненного клиента (ID уже известен, новый не генерируется)
+    public Client(String id, String fullName, String phone, String username, String password) {
+        this.id = id;
+        this.fullName = fullName;
+        this.phone = phone;
+        this.username = username;
+        this.password = password;
+    }
+
     // Геттер для полного имени клиента (возвращает имя, например, "Иван Иванов")
     public String getFullName() {
         return fullName;
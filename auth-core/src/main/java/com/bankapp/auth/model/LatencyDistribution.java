@@ -0,0 +1,241 @@
+package com.bankapp.auth.model;
+
+// Импорты необходимых библиотек
+import com.fasterxml.jackson.annotation.JsonSubTypes; // Описание вариантов распределения для JSON
+import com.fasterxml.jackson.annotation.JsonTypeInfo; // Поле "type" определяет вид распределения
+import java.util.Arrays; // Проверка и копирование таблицы перцентилей
+import java.util.concurrent.ThreadLocalRandom; // Быстрый генератор без аллокаций и общей блокировки
+
+/**
+ * Распределение задержки ответа для одного действия.
+ * Значения задаются в миллисекундах (дробные — для субмиллисекундной точности),
+ * выборка возвращается в наносекундах и не создает объектов.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = LatencyDistribution.Fixed.class, name = "fixed"),
+        @JsonSubTypes.Type(value = LatencyDistribution.Uniform.class, name = "uniform"),
+        @JsonSubTypes.Type(value = LatencyDistribution.Normal.class, name = "normal"),
+        @JsonSubTypes.Type(value = LatencyDistribution.LogNormal.class, name = "lognormal"),
+        @JsonSubTypes.Type(value = LatencyDistribution.Pareto.class, name = "pareto"),
+        @JsonSubTypes.Type(value = LatencyDistribution.Percentiles.class, name = "percentiles")
+})
+public sealed interface LatencyDistribution {
+
+    // z-оценка 99-го перцентиля стандартного нормального распределения
+    double Z_99 = 2.3263478740408408;
+
+    // Возвращает очередное значение задержки в наносекундах
+    long sampleNanos();
+
+    // Номинальное значение в миллисекундах (для старого эндпоинта /timeout/get)
+    double nominalMillis();
+
+    // То же распределение, все значения которого умножены на factor (форма сохраняется)
+    LatencyDistribution scaled(double factor);
+
+    // Перевод миллисекунд в наносекунды с отсечением отрицательных значений
+    private static long toNanos(double millis) {
+        return millis <= 0 ? 0 : (long) (millis * 1_000_000d);
+    }
+
+    private static void requireNonNegative(String name, double value) {
+        if (!(value >= 0) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException(name + " must be a non-negative number: " + value);
+        }
+    }
+
+    // Постоянная задержка
+    record Fixed(double valueMs) implements LatencyDistribution {
+        public Fixed {
+            requireNonNegative("valueMs", valueMs);
+        }
+
+        public long sampleNanos() {
+            return toNanos(valueMs);
+        }
+
+        public double nominalMillis() {
+            return valueMs;
+        }
+
+        public LatencyDistribution scaled(double factor) {
+            return new Fixed(valueMs * factor);
+        }
+    }
+
+    // Равномерное распределение на отрезке [minMs, maxMs]
+    record Uniform(double minMs, double maxMs) implements LatencyDistribution {
+        public Uniform {
+            requireNonNegative("minMs", minMs);
+            requireNonNegative("maxMs", maxMs);
+            if (maxMs < minMs) {
+                throw new IllegalArgumentException("maxMs must not be less than minMs");
+            }
+        }
+
+        public long sampleNanos() {
+            return toNanos(minMs + ThreadLocalRandom.current().nextDouble() * (maxMs - minMs));
+        }
+
+        public double nominalMillis() {
+            return (minMs + maxMs) / 2;
+        }
+
+        public LatencyDistribution scaled(double factor) {
+            return new Uniform(minMs * factor, maxMs * factor);
+        }
+    }
+
+    // Нормальное распределение, отрицательные значения обрезаются до нуля
+    record Normal(double meanMs, double stdDevMs) implements LatencyDistribution {
+        public Normal {
+            requireNonNegative("meanMs", meanMs);
+            requireNonNegative("stdDevMs", stdDevMs);
+        }
+
+        public long sampleNanos() {
+            return toNanos(meanMs + ThreadLocalRandom.current().nextGaussian() * stdDevMs);
+        }
+
+        public double nominalMillis() {
+            return meanMs;
+        }
+
+        public LatencyDistribution scaled(double factor) {
+            return new Normal(meanMs * factor, stdDevMs * factor);
+        }
+    }
+
+    /**
+     * Логнормальное распределение, задается медианой и 99-м перцентилем —
+     * ровно теми числами, которые снимаются с реального сервиса (например, p50 = 40 мс, p99 = 900 мс).
+     */
+    record LogNormal(double medianMs, double p99Ms) implements LatencyDistribution {
+        public LogNormal {
+            requireNonNegative("medianMs", medianMs);
+            requireNonNegative("p99Ms", p99Ms);
+            if (medianMs == 0 || p99Ms < medianMs) {
+                throw new IllegalArgumentException("Expected 0 < medianMs <= p99Ms");
+            }
+        }
+
+        public long sampleNanos() {
+            double mu = Math.log(medianMs);
+            double sigma = (Math.log(p99Ms) - mu) / Z_99;
+            return toNanos(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+        }
+
+        public double nominalMillis() {
+            return medianMs;
+        }
+
+        public LatencyDistribution scaled(double factor) {
+            return new LogNormal(medianMs * factor, p99Ms * factor);
+        }
+    }
+
+    /**
+     * Распределение Парето (тяжелый хвост): минимум scaleMs, показатель shape,
+     * значения ограничены сверху maxMs (0 — без ограничения).
+     */
+    record Pareto(double scaleMs, double shape, double maxMs) implements LatencyDistribution {
+        public Pareto {
+            requireNonNegative("scaleMs", scaleMs);
+            requireNonNegative("maxMs", maxMs);
+            if (!(shape > 0)) {
+                throw new IllegalArgumentException("shape must be positive: " + shape);
+            }
+        }
+
+        public long sampleNanos() {
+            // 1 - nextDouble() лежит в (0, 1], поэтому деления на ноль не бывает
+            double value = scaleMs / Math.pow(1 - ThreadLocalRandom.current().nextDouble(), 1 / shape);
+            return toNanos(maxMs > 0 ? Math.min(value, maxMs) : value);
+        }
+
+        public double nominalMillis() {
+            return scaleMs;
+        }
+
+        public LatencyDistribution scaled(double factor) {
+            return new Pareto(scaleMs * factor, shape, maxMs * factor);
+        }
+    }
+
+    /**
+     * Явная таблица перцентилей: percentiles[i] (0..100) соответствует valuesMs[i],
+     * между точками значение интерполируется линейно, ниже первой точки — равно первому значению.
+     */
+    record Percentiles(double[] percentiles, double[] valuesMs) implements LatencyDistribution {
+        public Percentiles {
+            if (percentiles == null || valuesMs == null || percentiles.length == 0
+                    || percentiles.length != valuesMs.length) {
+                throw new IllegalArgumentException("percentiles and valuesMs must be non-empty and of equal length");
+            }
+            percentiles = percentiles.clone();
+            valuesMs = valuesMs.clone();
+            for (int i = 0; i < percentiles.length; i++) {
+                requireNonNegative("valuesMs", valuesMs[i]);
+                if (percentiles[i] < 0 || percentiles[i] > 100
+                        || (i > 0 && (percentiles[i] <= percentiles[i - 1] || valuesMs[i] < valuesMs[i - 1]))) {
+                    throw new IllegalArgumentException("percentiles must increase within 0..100 with non-decreasing values");
+                }
+            }
+        }
+
+        /**
+         * Разбирает таблицу вида "50:40,90:200,99:900,100:2000" (перцентиль:миллисекунды).
+         */
+        public static Percentiles parse(String table) {
+            String[] points = table.split(",");
+            double[] percentiles = new double[points.length];
+            double[] values = new double[points.length];
+            for (int i = 0; i < points.length; i++) {
+                String[] pair = points[i].trim().split(":");
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Expected percentile:millis, got '" + points[i] + "'");
+                }
+                percentiles[i] = Double.parseDouble(pair[0].trim());
+                values[i] = Double.parseDouble(pair[1].trim());
+            }
+            return new Percentiles(percentiles, values);
+        }
+
+        public long sampleNanos() {
+            double p = ThreadLocalRandom.current().nextDouble() * 100;
+            int i = Arrays.binarySearch(percentiles, p);
+            if (i >= 0) {
+                return toNanos(valuesMs[i]);
+            }
+            int upper = -i - 1;
+            if (upper == 0) {
+                return toNanos(valuesMs[0]);
+            }
+            if (upper == percentiles.length) {
+                return toNanos(valuesMs[upper - 1]);
+            }
+            int lower = upper - 1;
+            double fraction = (p - percentiles[lower]) / (percentiles[upper] - percentiles[lower]);
+            return toNanos(valuesMs[lower] + fraction * (valuesMs[upper] - valuesMs[lower]));
+        }
+
+        public double nominalMillis() {
+            int median = Arrays.binarySearch(percentiles, 50);
+            return median >= 0 ? valuesMs[median] : valuesMs[Math.min(-median - 1, valuesMs.length - 1)];
+        }
+
+        public LatencyDistribution scaled(double factor) {
+            double[] scaled = new double[valuesMs.length];
+            for (int i = 0; i < scaled.length; i++) {
+                scaled[i] = valuesMs[i] * factor;
+            }
+            return new Percentiles(percentiles, scaled);
+        }
+
+        @Override
+        public String toString() {
+            return "Percentiles[percentiles=" + Arrays.toString(percentiles) + ", valuesMs=" + Arrays.toString(valuesMs) + "]";
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.bankapp.auth.model;
+
+// Импорты необходимых библиотек
+import com.fasterxml.jackson.annotation.JsonSubTypes; // Описание видов участков для JSON
+import com.fasterxml.jackson.annotation.JsonTypeInfo; // Поле "type" определяет вид участка
+import java.util.List; // Участки сценария по порядку
+
+/**
+ * Сценарий изменения задержки действия во времени: последовательность участков,
+ * каждый из которых задает номинальную задержку (медиану или среднее распределения) в миллисекундах
+ * в зависимости от времени с начала участка. loop — повторять сценарий по кругу,
+ * restore — по окончании вернуть распределение, действовавшее до запуска (иначе остается последнее значение).
+ */
+public record LatencyScenario(List<Segment> segments, boolean loop, Boolean restore) {
+
+    public LatencyScenario {
+        if (segments == null || segments.isEmpty()) {
+            throw new IllegalArgumentException("Scenario must contain at least one segment");
+        }
+        segments = List.copyOf(segments);
+        // По умолчанию после окончания сценария задержка возвращается к исходной
+        restore = restore == null || restore;
+    }
+
+    /**
+     * Участок сценария длительностью durationMs.
+     * valueAt получает время с начала участка и значение, на котором закончился предыдущий участок
+     * (для первого — номинальная задержка на момент запуска сценария).
+     */
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+    @JsonSubTypes({
+            @JsonSubTypes.Type(value = Hold.class, name = "hold"),
+            @JsonSubTypes.Type(value = Ramp.class, name = "ramp"),
+            @JsonSubTypes.Type(value = Spike.class, name = "spike"),
+            @JsonSubTypes.Type(value = Sine.class, name = "sine")
+    })
+    public sealed interface Segment {
+
+        double durationMs();
+
+        double valueAt(double elapsedMs, double previousMs);
+
+        private static void requirePositive(String name, double value) {
+            if (!(value > 0) || Double.isInfinite(value)) {
+                throw new IllegalArgumentException(name + " must be a positive number: " + value);
+            }
+        }
+
+        private static void requireNonNegative(String name, double value) {
+            if (!(value >= 0) || Double.isInfinite(value)) {
+                throw new IllegalArgumentException(name + " must be a non-negative number: " + value);
+            }
+        }
+    }
+
+    // Постоянное значение
+    public record Hold(double durationMs, double valueMs) implements Segment {
+        public Hold {
+            Segment.requirePositive("durationMs", durationMs);
+            Segment.requireNonNegative("valueMs", valueMs);
+        }
+
+        public double valueAt(double elapsedMs, double previousMs) {
+            return valueMs;
+        }
+    }
+
+    // Линейный переход от fromMs (не задано — от предыдущего значения) к toMs
+    public record Ramp(double durationMs, Double fromMs, double toMs) implements Segment {
+        public Ramp {
+            Segment.requirePositive("durationMs", durationMs);
+            if (fromMs != null) {
+                Segment.requireNonNegative("fromMs", fromMs);
+            }
+            Segment.requireNonNegative("toMs", toMs);
+        }
+
+        public double valueAt(double elapsedMs, double previousMs) {
+            double from = fromMs != null ? fromMs : previousMs;
+            return from + (toMs - from) * Math.min(elapsedMs / durationMs, 1);
+        }
+    }
+
+    /**
+     * Всплеск до valueMs на durationMs: подъем и спад занимают по riseMs (плавно, по косинусу),
+     * после участка задержка возвращается к предыдущему значению.
+     */
+    public record Spike(double durationMs, double valueMs, double riseMs) implements Segment {
+        public Spike {
+            Segment.requirePositive("durationMs", durationMs);
+            Segment.requireNonNegative("valueMs", valueMs);
+            Segment.requireNonNegative("riseMs", riseMs);
+            if (riseMs * 2 > durationMs) {
+                throw new IllegalArgumentException("riseMs must not exceed half of durationMs");
+            }
+        }
+
+        public double valueAt(double elapsedMs, double previousMs) {
+            double edge = Math.min(elapsedMs, durationMs - elapsedMs);
+            if (edge >= riseMs) {
+                return valueMs;
+            }
+            double weight = edge <= 0 ? 0 : (1 - Math.cos(Math.PI * edge / riseMs)) / 2;
+            return previousMs + (valueMs - previousMs) * weight;
+        }
+    }
+
+    // Синусоида baseMs ± amplitudeMs с периодом periodMs; отрицательные значения обрезаются до нуля
+    public record Sine(double durationMs, double baseMs, double amplitudeMs, double periodMs) implements Segment {
+        public Sine {
+            Segment.requirePositive("durationMs", durationMs);
+            Segment.requireNonNegative("baseMs", baseMs);
+            Segment.requireNonNegative("amplitudeMs", amplitudeMs);
+            Segment.requirePositive("periodMs", periodMs);
+        }
+
+        public double valueAt(double elapsedMs, double previousMs) {
+            return Math.max(0, baseMs + amplitudeMs * Math.sin(2 * Math.PI * elapsedMs / periodMs));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.bankapp.auth.repository;
+
+import com.bankapp.auth.model.Account;
+import com.bankapp.auth.model.Client;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Двоичный формат клиента для журнала, снимка и протокола узлов кластера.
+ * Запись: int длина тела, затем поля клиента; строки — int длина в байтах UTF-8 (-1 для null) и сами байты.
+ */
+public final class ClientCodec {
+
+    public static final int VERSION = 2; // Версия 2 добавила хеш пароля
+
+    // Поддерживаемые при чтении версии формата
+    static boolean isSupported(int version) {
+        return version == 1 || version == VERSION;
+    }
+
+    private ClientCodec() {
+    }
+
+    // Верхняя оценка размера записи (для выделения буфера)
+    public static int maxEncodedSize(Client client) {
+        int size = 4 + 6 * 4 + 4;
+        size += maxLength(client.getId()) + maxLength(client.getFullName()) + maxLength(client.getPhone())
+                + maxLength(client.getUsername()) + maxLength(client.getPassword()) + maxLength(client.getPasswordHash());
+        List<Account> accounts = client.getAccounts();
+        for (Account account : accounts) {
+            size += 3 * 4 + 8 + maxLength(account.getId()) + maxLength(account.getAccountNumber())
+                    + maxLength(account.getCardNumber());
+        }
+        return size;
+    }
+
+    // Записывает клиента в буфер вместе с префиксом длины
+    public static void encode(Client client, ByteBuffer buffer) {
+        int lengthPosition = buffer.position();
+        buffer.putInt(0);
+        putString(buffer, client.getId());
+        putString(buffer, client.getFullName());
+        putString(buffer, client.getPhone());
+        putString(buffer, client.getUsername());
+        putString(buffer, client.getPassword());
+        putString(buffer, client.getPasswordHash());
+        List<Account> accounts = client.getAccounts();
+        buffer.putInt(accounts.size());
+        for (Account account : accounts) {
+            putString(buffer, account.getId());
+            putString(buffer, account.getAccountNumber());
+            putString(buffer, account.getCardNumber());
+            buffer.putDouble(account.getBalance());
+        }
+        buffer.putInt(lengthPosition, buffer.position() - lengthPosition - 4);
+    }
+
+    /**
+     * Читает тело записи (после префикса длины) прямо из буфера, в том числе отображенного в память.
+     * scratch — переиспользуемый массив для байтов строк, version — версия формата файла.
+     */
+    public static Client decode(ByteBuffer buffer, byte[][] scratch, int version) {
+        Client client = new Client(getString(buffer, scratch), getString(buffer, scratch), getString(buffer, scratch),
+                getString(buffer, scratch), getString(buffer, scratch));
+        if (version >= 2) {
+            client.setPasswordHash(getString(buffer, scratch));
+        }
+        int accounts = buffer.getInt();
+        for (int i = 0; i < accounts; i++) {
+            client.getAccounts().add(new Account(getString(buffer, scratch), getString(buffer, scratch),
+                    getString(buffer, scratch), buffer.getDouble()));
+        }
+        return client;
+    }
+
+    // Верхняя оценка размера строки в байтах UTF-8
+    public static int maxLength(String value) {
+        return value == null ? 0 : value.length() * 3;
+    }
+
+    public static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    public static String getString(ByteBuffer buffer, byte[][] scratch) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new IllegalStateException("Corrupted record: string length " + length);
+        }
+        byte[] bytes = scratch[0];
+        if (bytes.length < length) {
+            bytes = scratch[0] = new byte[Math.max(length, bytes.length * 2)];
+        }
+        buffer.get(bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,301 @@
+package com.bankapp.auth.repository;
+
+import com.bankapp.auth.model.Client;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Необязательное сохранение клиентов между перезапусками (auth.persistence.enabled=true).
+ * Каждое сохранение в ClientRepository дописывается в журнал отдельным потоком-писателем
+ * (поток запроса только кладет клиента в очередь). Периодически журнал переключается на новое
+ * поколение, а все клиенты записываются в снимок; старые поколения журнала после этого удаляются.
+ * При старте загружается снимок и повторяются поколения журнала, записанные после него.
+ */
+@Component
+public class ClientPersistence {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientPersistence.class);
+    private static final int JOURNAL_MAGIC = 0x414A524E; // "AJRN"
+    private static final int JOURNAL_HEADER_SIZE = 4 + 4 + 8;
+    private static final long READ_WINDOW = 1L << 30; // Окно отображения журнала при чтении
+    private static final int BATCH_SIZE = 4096;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final Duration snapshotInterval;
+    private final boolean fsync;
+    private final boolean snapshotOnShutdown;
+
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private ScheduledExecutorService compactor;
+    private Thread writer;
+    // Поля ниже использует только поток-писатель (и start до его запуска)
+    private FileChannel journal;
+    private long generation;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+
+    public ClientPersistence(@Value("${auth.persistence.enabled:false}") boolean enabled,
+                             @Value("${auth.persistence.dir:./data}") String directory,
+                             @Value("${auth.persistence.snapshot-interval:5m}") Duration snapshotInterval,
+                             @Value("${auth.persistence.fsync:false}") boolean fsync,
+                             @Value("${auth.persistence.snapshot-on-shutdown:true}") boolean snapshotOnShutdown) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.snapshotInterval = snapshotInterval;
+        this.fsync = fsync;
+        this.snapshotOnShutdown = snapshotOnShutdown;
+    }
+
+    // Элемент очереди писателя: клиент для журнала или команда переключения поколения
+    private record Entry(Client client, CompletableFuture<Long> rotation) {
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        long startTime = System.nanoTime();
+        // Загружаем снимок и повторяем журнал до установки слушателя, чтобы не писать загруженное повторно
+        ClientSnapshot.Loaded snapshot = ClientSnapshot.read(directory, ClientRepository::save);
+        long fromGeneration = snapshot != null ? snapshot.generation() : 0;
+        long replayed = 0;
+        long lastGeneration = fromGeneration - 1;
+        for (Path file : journals()) {
+            long fileGeneration = generationOf(file);
+            if (fileGeneration >= fromGeneration) {
+                replayed += replay(file);
+            }
+            lastGeneration = Math.max(lastGeneration, fileGeneration);
+        }
+        log.info("Restored {} clients from snapshot and {} journal records from {} in {} ms",
+                snapshot != null ? snapshot.clients() : 0, replayed, directory.toAbsolutePath(),
+                (System.nanoTime() - startTime) / 1_000_000);
+
+        // Пишем всегда в новый файл: хвост старого мог быть оборван при аварийной остановке
+        generation = Math.max(fromGeneration, lastGeneration + 1);
+        journal = openJournal(generation);
+        ClientRepository.setSaveListener(client -> queue.add(new Entry(client, null)));
+
+        writer = new Thread(this::writeLoop, "auth-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "auth-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = snapshotInterval.toMillis();
+        compactor.scheduleWithFixedDelay(this::compactQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Записывает снимок всех клиентов и удаляет покрытые им поколения журнала.
+     * Возвращает количество клиентов в снимке.
+     */
+    public long compact() throws IOException {
+        if (!enabled) {
+            return 0;
+        }
+        // Сначала переключаем журнал: все, что сохранится дальше, попадет в новое поколение,
+        // все, что было сохранено раньше, уже лежит в ClientRepository и попадет в снимок
+        CompletableFuture<Long> rotated = new CompletableFuture<>();
+        queue.add(new Entry(null, rotated));
+        long snapshotGeneration = rotated.join();
+        long startTime = System.nanoTime();
+        long count = ClientSnapshot.write(directory, ClientRepository.getAllClients(), snapshotGeneration);
+        for (Path file : journals()) {
+            if (generationOf(file) < snapshotGeneration) {
+                Files.deleteIfExists(file);
+            }
+        }
+        log.info("Wrote snapshot of {} clients in {} ms", count, (System.nanoTime() - startTime) / 1_000_000);
+        return count;
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        compactor.shutdownNow();
+        if (snapshotOnShutdown) {
+            compact();
+        }
+        ClientRepository.setSaveListener(null);
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Snapshot failed, journal is kept", e);
+        }
+    }
+
+    // Поток-писатель: забирает клиентов пачками и пишет их в журнал одним вызовом write
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                // Остановка: дописываем то, что осталось в очереди
+                queue.drainTo(batch);
+                writeBatch(batch);
+                closeJournal();
+                return;
+            }
+            queue.drainTo(batch, BATCH_SIZE - 1);
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<Entry> batch) {
+        try {
+            for (Entry entry : batch) {
+                if (entry.client() != null) {
+                    int size = ClientCodec.maxEncodedSize(entry.client());
+                    if (buffer.remaining() < size) {
+                        flush();
+                        if (buffer.capacity() < size) {
+                            buffer = ByteBuffer.allocateDirect(size);
+                        }
+                    }
+                    ClientCodec.encode(entry.client(), buffer);
+                } else {
+                    flush();
+                    journal.close();
+                    generation++;
+                    journal = openJournal(generation);
+                    entry.rotation().complete(generation);
+                }
+            }
+            flush();
+        } catch (IOException e) {
+            log.error("Failed to write client journal", e);
+            batch.stream().filter(entry -> entry.rotation() != null)
+                    .forEach(entry -> entry.rotation().completeExceptionally(e));
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            journal.write(buffer);
+        }
+        buffer.clear();
+        if (fsync) {
+            journal.force(false);
+        }
+    }
+
+    private void closeJournal() {
+        try {
+            journal.force(false);
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Failed to close client journal", e);
+        }
+    }
+
+    private FileChannel openJournal(long journalGeneration) throws IOException {
+        FileChannel channel = FileChannel.open(journalPath(journalGeneration), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_SIZE);
+        header.putInt(JOURNAL_MAGIC).putInt(ClientCodec.VERSION).putLong(journalGeneration).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        return channel;
+    }
+
+    // Повторяет записи одного файла журнала; оборванная последняя запись отбрасывается
+    private long replay(Path file) throws IOException {
+        long records = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Читаем заголовок целиком
+            }
+            header.flip();
+            if (header.remaining() < JOURNAL_HEADER_SIZE || header.getInt() != JOURNAL_MAGIC) {
+                log.warn("Skipping journal {} without a valid header", file);
+                return records;
+            }
+            int version = header.getInt();
+            if (!ClientCodec.isSupported(version)) {
+                throw new IOException("Unsupported journal format version " + version + ": " + file);
+            }
+            long position = JOURNAL_HEADER_SIZE;
+            byte[][] scratch = {new byte[256]};
+            while (position + 4 <= size) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(READ_WINDOW, size - position));
+                long windowStart = position;
+                while (window.remaining() >= 4) {
+                    int length = window.getInt(window.position());
+                    if (length <= 0 || position + 4 + length > size) {
+                        log.warn("Ignoring torn tail of journal {} at offset {}", file, position);
+                        return records;
+                    }
+                    if (window.remaining() < 4 + length) {
+                        break; // Запись пересекает границу окна — отображаем следующее окно с ее начала
+                    }
+                    window.position(window.position() + 4);
+                    int end = window.position() + length;
+                    ClientRepository.save(ClientCodec.decode(window, scratch, version));
+                    window.position(end);
+                    position = windowStart + end;
+                    records++;
+                }
+            }
+        }
+        return records;
+    }
+
+    private List<Path> journals() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().matches("journal-\\d+\\.log"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path journalPath(long journalGeneration) {
+        return directory.resolve(String.format("journal-%020d.log", journalGeneration));
+    }
+
+    private static long generationOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring("journal-".length(), name.length() - ".log".length()));
+    }
+}
@@ -0,0 +1,162 @@
+package com.bankapp.auth.repository;
+
+// Импорты необходимых библиотек
+import com.bankapp.auth.model.Account; // Счет клиента (номер счета и номер карты для индексов)
+import com.bankapp.auth.model.Client; // Модель клиента для работы с данными пользователя
+import java.util.*; // Классы Java для работы с коллекциями (Optional, Collection)
+import java.util.concurrent.ConcurrentHashMap; // Потокобезопасная хеш-таблица с чтением без блокировок
+import java.util.function.Consumer; // Слушатель сохранений (журнал персистентности)
+
+// Класс-репозиторий для хранения и управления данными о клиентах
+public class ClientRepository {
+    // Хранилище клиентов: ключ — ID клиента, значение — объект Client
+    // ConcurrentHashMap: параллельные регистрации не портят таблицу, чтения идут без блокировок
+    private static final Map<String, Client> clients = new ConcurrentHashMap<>();
+    // Индекс по логину: ключ — username, значение — объект Client
+    // Поиск при логине — O(1) вместо перебора всех клиентов
+    private static final ConcurrentHashMap<String, Client> clientsByUsername = new ConcurrentHashMap<>();
+    // Индексы по номеру счета и номеру карты: ключ — номер, значение — владелец счета
+    private static final ConcurrentHashMap<String, Client> clientsByAccountNumber = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Client> clientsByCardNumber = new ConcurrentHashMap<>();
+    // Индекс по цифрам телефона: точный номер и поиск по префиксу (у одного номера может быть несколько клиентов)
+    private static final PhoneIndex clientsByPhone = new PhoneIndex();
+    // Вызывается после каждого сохранения (например, для записи в журнал), по умолчанию ничего не делает
+    private static volatile Consumer<Client> saveListener = client -> { };
+
+    // Метод для сохранения клиента в хранилище
+    public static Client save(Client client) {
+        // Атомарно занимаем логин: если он уже принадлежит другому клиенту — регистрация отклоняется
+        Client existing = clientsByUsername.putIfAbsent(client.getUsername(), client);
+        if (existing != null && existing != client) {
+            if (!existing.getId().equals(client.getId())) {
+                throw new DuplicateUsernameException(client.getUsername());
+            }
+            // Тот же клиент в новом экземпляре (например, при повторе журнала) — обновляем индекс
+            clientsByUsername.replace(client.getUsername(), existing, client);
+        }
+        store(client, existing == null);
+        // Возвращаем сохраненного клиента
+        return client;
+    }
+
+    // Сохраняет только нового клиента: false — логин уже занят, существующий клиент не меняется
+    public static boolean saveIfAbsent(Client client) {
+        if (clientsByUsername.putIfAbsent(client.getUsername(), client) != null) {
+            return false;
+        }
+        store(client, true);
+        return true;
+    }
+
+    // Кладет клиента в основное хранилище и индексы; claimed — логин занят этим вызовом и освобождается при отказе
+    private static void store(Client client, boolean claimed) {
+        // Добавляем клиента в основное хранилище, используя его ID как ключ;
+        // ID, принадлежащий клиенту с другим логином, не перезаписывается
+        Client[] previous = new Client[1];
+        try {
+            clients.compute(client.getId(), (id, current) -> {
+                if (current != null && !current.getUsername().equals(client.getUsername())) {
+                    throw new DuplicateClientIdException(id);
+                }
+                previous[0] = current;
+                return client;
+            });
+        } catch (DuplicateClientIdException e) {
+            if (claimed) {
+                clientsByUsername.remove(client.getUsername(), client);
+            }
+            throw e;
+        }
+        // Повторное сохранение в новом экземпляре: убираем из индексов старые телефон и счета
+        if (previous[0] != null && previous[0] != client) {
+            unindex(previous[0]);
+        }
+        // Добавляем телефон и счета в индексы (счета, добавленные после сохранения, попадут туда при следующем save)
+        index(client);
+        // Сообщаем слушателю о сохранении
+        saveListener.accept(client);
+    }
+
+    // Метод для поиска клиента по логину (username)
+    public static Optional<Client> findByUsername(String username) {
+        // Одно чтение из индекса, без блокировок и без перебора
+        return Optional.ofNullable(clientsByUsername.get(username));
+    }
+
+    // Метод для поиска клиента по номеру счета (12 цифр)
+    public static Optional<Client> findByAccountNumber(String accountNumber) {
+        return Optional.ofNullable(clientsByAccountNumber.get(accountNumber));
+    }
+
+    // Метод для поиска клиента по номеру карты (16 цифр)
+    public static Optional<Client> findByCardNumber(String cardNumber) {
+        return Optional.ofNullable(clientsByCardNumber.get(cardNumber));
+    }
+
+    // Метод для поиска клиентов по телефону; сравниваются только цифры ("+7 (900) 111-22-33" = "79001112233")
+    public static List<Client> findByPhone(String phone) {
+        return clientsByPhone.find(phone);
+    }
+
+    // Метод для поиска не больше limit клиентов, чей телефон начинается с prefix (по возрастанию номера)
+    public static List<Client> findByPhonePrefix(String prefix, int limit) {
+        return clientsByPhone.findByPrefix(prefix, limit);
+    }
+
+    // Метод для поиска клиента по ID
+    public static Optional<Client> findById(String id) {
+        // Ищем клиента в хранилище по ID
+        // Возвращаем Optional, содержащий клиента (или пустой, если не найден)
+        return Optional.ofNullable(clients.get(id));
+    }
+
+    // Метод для получения всех клиентов
+    public static Collection<Client> getAllClients() {
+        // Возвращаем коллекцию всех клиентов (слабо согласованное представление)
+        return clients.values();
+    }
+
+    // Добавляет телефон, номера счетов и карт клиента в индексы
+    private static void index(Client client) {
+        clientsByPhone.add(client);
+        for (Account account : client.getAccounts()) {
+            if (account.getAccountNumber() != null) {
+                clientsByAccountNumber.put(account.getAccountNumber(), client);
+            }
+            if (account.getCardNumber() != null) {
+                clientsByCardNumber.put(account.getCardNumber(), client);
+            }
+        }
+    }
+
+    // Убирает из индексов записи старого экземпляра клиента (записи нового экземпляра не трогает)
+    private static void unindex(Client client) {
+        clientsByPhone.remove(client);
+        for (Account account : client.getAccounts()) {
+            if (account.getAccountNumber() != null) {
+                clientsByAccountNumber.remove(account.getAccountNumber(), client);
+            }
+            if (account.getCardNumber() != null) {
+                clientsByCardNumber.remove(account.getCardNumber(), client);
+            }
+        }
+    }
+
+    // Сообщает слушателю об изменении уже сохраненного клиента (например, после хеширования пароля) без переиндексации;
+    // экземпляр, который уже заменен в хранилище, не передается
+    public static void notifySaved(Client client) {
+        if (clients.get(client.getId()) == client) {
+            saveListener.accept(client);
+        }
+    }
+
+    // Устанавливает слушателя сохранений (null — убрать)
+    public static void setSaveListener(Consumer<Client> listener) {
+        saveListener = listener != null ? listener : client -> { };
+    }
+
+    // Количество зарегистрированных клиентов
+    public static int count() {
+        return clients.size();
+    }
+}
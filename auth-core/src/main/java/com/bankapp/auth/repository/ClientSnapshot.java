@@ -0,0 +1,160 @@
+package com.bankapp.auth.repository;
+
+import com.bankapp.auth.model.Client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Двоичный снимок всех клиентов, записывается и читается через отображение файла в память.
+ * Формат: заголовок (magic, версия, поколение журнала, число записей, смещение оглавления),
+ * записи ClientCodec, оглавление — смещения блоков по RECORDS_PER_BLOCK записей.
+ * Оглавление позволяет разбирать блоки параллельно, каждый блок читается прямо из отображенной памяти.
+ */
+final class ClientSnapshot {
+
+    static final String FILE_NAME = "clients.snapshot";
+    private static final int MAGIC = 0x41534E50; // "ASNP"
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 8;
+    private static final int RECORDS_PER_BLOCK = 65_536;
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024; // Размер окна отображения при записи
+
+    private ClientSnapshot() {
+    }
+
+    // Результат чтения снимка
+    record Loaded(long generation, long clients) {
+    }
+
+    /**
+     * Записывает снимок во временный файл и атомарно заменяет им старый.
+     * generation — поколение журнала, с которого нужно продолжать повтор после загрузки этого снимка.
+     */
+    static long write(Path directory, Iterable<Client> clients, long generation) throws IOException {
+        Path target = directory.resolve(FILE_NAME);
+        Path temp = directory.resolve(FILE_NAME + ".tmp");
+        long count = 0;
+        List<Long> blocks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long windowStart = HEADER_SIZE;
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, WINDOW_SIZE);
+            for (Client client : clients) {
+                int size = ClientCodec.maxEncodedSize(client);
+                if (window.remaining() < size) {
+                    // Запись не помещается в окно — отображаем следующее окно с текущей позиции
+                    window.force();
+                    windowStart += window.position();
+                    window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, Math.max(WINDOW_SIZE, size));
+                }
+                if (count % RECORDS_PER_BLOCK == 0) {
+                    blocks.add(windowStart + window.position());
+                }
+                ClientCodec.encode(client, window);
+                count++;
+            }
+            window.force();
+            long footerOffset = windowStart + window.position();
+
+            ByteBuffer footer = ByteBuffer.allocate(4 + blocks.size() * 8);
+            footer.putInt(blocks.size());
+            blocks.forEach(footer::putLong);
+            footer.flip();
+            writeFully(channel, footer, footerOffset);
+            channel.truncate(footerOffset + 4 + blocks.size() * 8L);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(ClientCodec.VERSION).putLong(generation).putLong(count).putLong(footerOffset);
+            header.flip();
+            writeFully(channel, header, 0);
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+
+    /**
+     * Загружает снимок: блоки разбираются параллельно прямо из отображенной памяти,
+     * каждый клиент передается в sink. Возвращает null, если снимка нет.
+     */
+    static Loaded read(Path directory, Consumer<Client> sink) throws IOException {
+        Path file = directory.resolve(FILE_NAME);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header, 0);
+            header.flip();
+            int magic = header.getInt();
+            int version = header.getInt();
+            if (magic != MAGIC || !ClientCodec.isSupported(version)) {
+                throw new IOException("Unsupported snapshot format: " + file);
+            }
+            long generation = header.getLong();
+            long count = header.getLong();
+            long footerOffset = header.getLong();
+
+            ByteBuffer blockCount = ByteBuffer.allocate(4);
+            readFully(channel, blockCount, footerOffset);
+            int blocks = blockCount.flip().getInt();
+            ByteBuffer offsets = ByteBuffer.allocate(blocks * 8);
+            readFully(channel, offsets, footerOffset + 4);
+            offsets.flip();
+            long[] starts = new long[blocks + 1];
+            for (int i = 0; i < blocks; i++) {
+                starts[i] = offsets.getLong();
+            }
+            starts[blocks] = footerOffset;
+
+            AtomicLong loaded = new AtomicLong();
+            IntStream.range(0, blocks).parallel().forEach(block -> {
+                try {
+                    MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, starts[block],
+                            starts[block + 1] - starts[block]);
+                    byte[][] scratch = {new byte[256]};
+                    while (region.hasRemaining()) {
+                        int length = region.getInt();
+                        int end = region.position() + length;
+                        sink.accept(ClientCodec.decode(region, scratch, version));
+                        region.position(end);
+                        loaded.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException("Failed to read snapshot block " + block, e);
+                }
+            });
+            if (loaded.get() != count) {
+                throw new IOException("Snapshot is truncated: expected " + count + " clients, read " + loaded.get());
+            }
+            return new Loaded(generation, count);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of snapshot file");
+            }
+            position += read;
+        }
+    }
+}
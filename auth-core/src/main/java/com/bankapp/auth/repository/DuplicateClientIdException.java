@@ -0,0 +1,16 @@
+package com.bankapp.auth.repository;
+
+// Исключение: ID уже принадлежит клиенту с другим логином
+public class DuplicateClientIdException extends RuntimeException {
+
+    private final String id; // ID, который пытались занять повторно
+
+    public DuplicateClientIdException(String id) {
+        super("Client id already belongs to another username: " + id);
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
@@ -0,0 +1,16 @@
+package com.bankapp.auth.repository;
+
+// Исключение: логин уже занят другим клиентом
+public class DuplicateUsernameException extends RuntimeException {
+
+    private final String username; // Логин, который пытались зарегистрировать повторно
+
+    public DuplicateUsernameException(String username) {
+        super("Username already exists: " + username);
+        this.username = username;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+}
@@ -0,0 +1,386 @@
+package com.bankapp.auth.repository;
+
+import com.bankapp.auth.model.Client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Индекс клиентов по цифрам телефона для поиска по точному номеру и по префиксу.
+ * Дерево по цифрам: лист хранит номера по возрастанию, пока их не больше SPLIT_THRESHOLD,
+ * затем раскладывается на 10 дочерних узлов по следующей цифре. Номер в листе — long (цифры, дополненные
+ * нулями до MAX_DIGITS) и длина: порядок пар совпадает с порядком строк, а двоичный поиск идет по массиву
+ * примитивов без обращения к строкам. Номер с одним клиентом занимает одну ссылку, несколько клиентов
+ * с одним номером — небольшую группу. Запись блокирует только свой лист и заменяет его массивы копией,
+ * чтение идет без блокировок по опубликованному снимку.
+ */
+final class PhoneIndex {
+
+    private static final int SPLIT_THRESHOLD = 512;
+    private static final int MAX_DIGITS = 18;
+    private static final long[] POWERS = new long[MAX_DIGITS + 1];
+
+    static {
+        POWERS[0] = 1;
+        for (int i = 1; i <= MAX_DIGITS; i++) {
+            POWERS[i] = POWERS[i - 1] * 10;
+        }
+    }
+
+    // Снимок узла: номера по возрастанию и значения (Client или ClientGroup)
+    private record State(long[] keys, byte[] lengths, Object[] values) {
+    }
+
+    private static final State EMPTY = new State(new long[0], new byte[0], new Object[0]);
+
+    /**
+     * Узел дерева. children != null — узел разложен: все 10 дочерних узлов созданы, а в state остаются
+     * только номера длиной ровно depth. При раскладке сначала публикуются children, потом урезается state,
+     * поэтому читатель, который прочитал state, а затем увидел children == null, держит полный снимок листа.
+     */
+    private static final class Node {
+        final int depth;
+        volatile State state = EMPTY;
+        volatile Node[] children;
+
+        Node(int depth) {
+            this.depth = depth;
+        }
+    }
+
+    /**
+     * Клиенты с одним номером. Массив только растет: читатель берет size, затем clients,
+     * и видит не меньше size заполненных элементов. Меняется под блокировкой листа.
+     */
+    private static final class ClientGroup {
+        volatile Client[] clients;
+        volatile int size;
+
+        ClientGroup(Client first, Client second) {
+            clients = new Client[]{first, second, null, null};
+            size = 2;
+        }
+    }
+
+    private final Node root = new Node(0);
+
+    void add(Client client) {
+        String phone = client.getPhone();
+        int length = digitCount(phone);
+        if (length <= 0) {
+            return;
+        }
+        long key = keyOf(phone);
+        while (true) {
+            Node node = descend(root, phone, length);
+            synchronized (node) {
+                // Пока ждали блокировку, лист могли разложить — спускаемся заново
+                if (node.children != null && length > node.depth) {
+                    continue;
+                }
+                node.state = insert(node, node.state, key, length, client);
+                return;
+            }
+        }
+    }
+
+    void remove(Client client) {
+        String phone = client.getPhone();
+        int length = digitCount(phone);
+        if (length <= 0) {
+            return;
+        }
+        long key = keyOf(phone);
+        while (true) {
+            Node node = descend(root, phone, length);
+            synchronized (node) {
+                if (node.children != null && length > node.depth) {
+                    continue;
+                }
+                State state = node.state;
+                int index = search(state, key, length);
+                if (index >= 0) {
+                    node.state = delete(state, index, client);
+                }
+                return;
+            }
+        }
+    }
+
+    // Клиенты с точно таким номером
+    List<Client> find(String phone) {
+        List<Client> result = new ArrayList<>(1);
+        int length = digitCount(phone);
+        if (length <= 0) {
+            return result;
+        }
+        long key = keyOf(phone);
+        Node node;
+        State state;
+        do {
+            node = descend(root, phone, length);
+            state = node.state;
+        } while (length > node.depth && node.children != null);
+        int index = search(state, key, length);
+        if (index >= 0) {
+            collect(state.values()[index], result, Integer.MAX_VALUE);
+        }
+        return result;
+    }
+
+    // Не больше limit клиентов, чей номер начинается с prefix, по возрастанию номера; пустой префикс — все номера
+    List<Client> findByPrefix(String prefix, int limit) {
+        List<Client> result = new ArrayList<>(Math.min(Math.max(limit, 0), 64));
+        int length = digitCount(prefix);
+        if (limit <= 0 || length < 0 || length == 0 && prefix != null && !prefix.isEmpty()) {
+            return result;
+        }
+        long key = length > 0 ? keyOf(prefix) : 0;
+        Node node;
+        State state;
+        do {
+            node = length > 0 ? descend(root, prefix, length) : root;
+            state = node.state;
+        } while (length > node.depth && node.children != null);
+        if (node.depth < length) {
+            // Префикс длиннее пути до листа: номера листа отсортированы, подходящие идут подряд
+            long end = key + POWERS[MAX_DIGITS - length];
+            int index = search(state, key, length);
+            long[] keys = state.keys();
+            for (int i = index >= 0 ? index : -index - 1; i < keys.length && keys[i] < end && result.size() < limit; i++) {
+                collect(state.values()[i], result, limit);
+            }
+            return result;
+        }
+        collectSubtree(node, result, limit);
+        return result;
+    }
+
+    // Число цифр в номере ("+7 (900) 111-22-33" — 11); 0 — цифр нет, -1 — больше MAX_DIGITS
+    private static int digitCount(String phone) {
+        if (phone == null) {
+            return 0;
+        }
+        int digits = 0;
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            }
+        }
+        return digits > MAX_DIGITS ? -1 : digits;
+    }
+
+    // Цифры номера, дополненные справа нулями до MAX_DIGITS: "790" — 790_000_000_000_000_000
+    private static long keyOf(String phone) {
+        long key = 0;
+        int digits = 0;
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                key = key * 10 + (c - '0');
+                digits++;
+            }
+        }
+        return key * POWERS[MAX_DIGITS - digits];
+    }
+
+    private static int digitAt(long key, int position) {
+        return (int) (key / POWERS[MAX_DIGITS - 1 - position] % 10);
+    }
+
+    /**
+     * Лист (или разложенный узел, если номер кончается на его глубине), в котором лежит номер.
+     * Цифры берутся из строки по порядку: деление long на степень 10 на каждом уровне заметно дороже.
+     */
+    private static Node descend(Node root, String phone, int length) {
+        Node node = root;
+        int position = 0;
+        while (true) {
+            Node[] children = node.children;
+            if (children == null || length <= node.depth) {
+                return node;
+            }
+            char c = phone.charAt(position++);
+            while (c < '0' || c > '9') {
+                c = phone.charAt(position++);
+            }
+            node = children[c - '0'];
+        }
+    }
+
+    // Двоичный поиск пары (key, length); отрицательный результат — -(место вставки) - 1
+    private static int search(State state, long key, int length) {
+        long[] keys = state.keys();
+        byte[] lengths = state.lengths();
+        int low = 0;
+        int high = keys.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int compare = keys[middle] != key ? Long.compare(keys[middle], key) : Integer.compare(lengths[middle], length);
+            if (compare < 0) {
+                low = middle + 1;
+            } else if (compare > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static State insert(Node node, State state, long key, int length, Client client) {
+        Object[] values = state.values();
+        int index = search(state, key, length);
+        if (index >= 0) {
+            Object value = values[index];
+            if (value instanceof ClientGroup group) {
+                addToGroup(group, client);
+                return state;
+            }
+            Object[] copy = values.clone();
+            Client existing = (Client) value;
+            copy[index] = existing.getId().equals(client.getId()) ? client : new ClientGroup(existing, client);
+            return new State(state.keys(), state.lengths(), copy);
+        }
+        int position = -index - 1;
+        int size = values.length;
+        long[] keys = new long[size + 1];
+        byte[] lengths = new byte[size + 1];
+        Object[] newValues = new Object[size + 1];
+        System.arraycopy(state.keys(), 0, keys, 0, position);
+        System.arraycopy(state.lengths(), 0, lengths, 0, position);
+        System.arraycopy(values, 0, newValues, 0, position);
+        keys[position] = key;
+        lengths[position] = (byte) length;
+        newValues[position] = client;
+        System.arraycopy(state.keys(), position, keys, position + 1, size - position);
+        System.arraycopy(state.lengths(), position, lengths, position + 1, size - position);
+        System.arraycopy(values, position, newValues, position + 1, size - position);
+        if (node.children == null && keys.length > SPLIT_THRESHOLD && node.depth < MAX_DIGITS) {
+            return split(node, keys, lengths, newValues);
+        }
+        return new State(keys, lengths, newValues);
+    }
+
+    /**
+     * Раскладывает лист на дочерние узлы по следующей цифре и возвращает урезанный снимок узла.
+     * Дочерние узлы заполняются до публикации children, урезанный снимок публикует вызывающий — после.
+     */
+    private static State split(Node node, long[] keys, byte[] lengths, Object[] values) {
+        Node[] children = new Node[10];
+        for (int digit = 0; digit < 10; digit++) {
+            children[digit] = new Node(node.depth + 1);
+        }
+        // Номера длиной depth идут первыми и остаются в узле
+        int own = 0;
+        while (own < keys.length && lengths[own] == node.depth) {
+            own++;
+        }
+        int start = own;
+        while (start < keys.length) {
+            int digit = digitAt(keys[start], node.depth);
+            int end = start;
+            while (end < keys.length && digitAt(keys[end], node.depth) == digit) {
+                end++;
+            }
+            children[digit].state = new State(Arrays.copyOfRange(keys, start, end),
+                    Arrays.copyOfRange(lengths, start, end), Arrays.copyOfRange(values, start, end));
+            start = end;
+        }
+        node.children = children;
+        return new State(Arrays.copyOf(keys, own), Arrays.copyOf(lengths, own), Arrays.copyOf(values, own));
+    }
+
+    private static State delete(State state, int index, Client client) {
+        Object value = state.values()[index];
+        if (value instanceof ClientGroup group) {
+            removeFromGroup(group, client);
+            return state;
+        }
+        if (!((Client) value).getId().equals(client.getId())) {
+            return state;
+        }
+        int size = state.keys().length;
+        long[] keys = new long[size - 1];
+        byte[] lengths = new byte[size - 1];
+        Object[] values = new Object[size - 1];
+        System.arraycopy(state.keys(), 0, keys, 0, index);
+        System.arraycopy(state.lengths(), 0, lengths, 0, index);
+        System.arraycopy(state.values(), 0, values, 0, index);
+        System.arraycopy(state.keys(), index + 1, keys, index, size - index - 1);
+        System.arraycopy(state.lengths(), index + 1, lengths, index, size - index - 1);
+        System.arraycopy(state.values(), index + 1, values, index, size - index - 1);
+        return new State(keys, lengths, values);
+    }
+
+    private static void addToGroup(ClientGroup group, Client client) {
+        Client[] clients = group.clients;
+        int size = group.size;
+        for (int i = 0; i < size; i++) {
+            if (clients[i].getId().equals(client.getId())) {
+                clients[i] = client;
+                return;
+            }
+        }
+        if (size == clients.length) {
+            clients = Arrays.copyOf(clients, size * 2);
+            group.clients = clients;
+        }
+        clients[size] = client;
+        group.size = size + 1;
+    }
+
+    // Последний клиент переносится на место удаленного: одновременное чтение может его один раз не увидеть
+    private static void removeFromGroup(ClientGroup group, Client client) {
+        Client[] clients = group.clients;
+        int size = group.size;
+        for (int i = 0; i < size; i++) {
+            if (clients[i].getId().equals(client.getId())) {
+                clients[i] = clients[size - 1];
+                group.size = size - 1;
+                clients[size - 1] = null;
+                return;
+            }
+        }
+    }
+
+    private static void collect(Object value, List<Client> result, int limit) {
+        if (value instanceof ClientGroup group) {
+            int size = group.size;
+            Client[] clients = group.clients;
+            for (int i = 0; i < size && result.size() < limit; i++) {
+                Client client = clients[i];
+                if (client != null) {
+                    result.add(client);
+                }
+            }
+        } else if (result.size() < limit) {
+            result.add((Client) value);
+        }
+    }
+
+    // Номера узла длиной depth идут раньше более длинных, затем дочерние узлы по возрастанию цифры
+    private static void collectSubtree(Node node, List<Client> result, int limit) {
+        State state = node.state;
+        Node[] children = node.children;
+        if (children == null) {
+            for (Object value : state.values()) {
+                if (result.size() >= limit) {
+                    return;
+                }
+                collect(value, result, limit);
+            }
+            return;
+        }
+        // Узел разложен: снимок может быть еще не урезан, свои номера — только длиной depth (они идут первыми)
+        byte[] lengths = state.lengths();
+        for (int i = 0; i < lengths.length && lengths[i] == node.depth && result.size() < limit; i++) {
+            collect(state.values()[i], result, limit);
+        }
+        for (int digit = 0; digit < 10 && result.size() < limit; digit++) {
+            collectSubtree(children[digit], result, limit);
+        }
+    }
+}
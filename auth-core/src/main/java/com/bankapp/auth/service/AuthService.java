@@ -0,0 +1,143 @@
+package com.bankapp.auth.service;
+
+import com.bankapp.auth.cluster.ClusterService;
+import com.bankapp.auth.model.Client;
+import com.bankapp.auth.repository.DuplicateUsernameException;
+import com.bankapp.auth.service.CustomMetricsService.Action;
+import com.bankapp.auth.service.CustomMetricsService.Outcome;
+import com.bankapp.auth.util.CapacityExceededException;
+import com.bankapp.auth.util.CapacityLimiter;
+import com.bankapp.auth.util.SessionManager;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Регистрация, вход, выход и проверка сессии с эмуляцией задержек и насыщения и с метриками запросов.
+ * Это та же логика, что стоит за /auth/*: HTTP-контроллеры только разбирают запрос и оформляют ответ,
+ * поэтому вызывающий код в том же процессе получает те же задержки, отказы и счетчики.
+ * В кластере регистрация и проверка пароля выполняются на узле-владельце логина (ClusterService).
+ * Отказ ограничителя — CapacityExceededException, занятый логин — DuplicateUsernameException,
+ * переполнение пула хеширования — RejectedExecutionException, недоступный владелец логина —
+ * ClusterUnavailableException (асинхронные методы — в future).
+ */
+@Service
+public class AuthService {
+
+    private final ClusterService clusterService;
+    private final SessionManager sessionManager;
+    private final TimeoutService timeoutService;
+    private final CapacityService capacityService;
+    private final CustomMetricsService metricsService;
+
+    public AuthService(ClusterService clusterService, SessionManager sessionManager, TimeoutService timeoutService,
+                       CapacityService capacityService, CustomMetricsService metricsService) {
+        this.clusterService = clusterService;
+        this.sessionManager = sessionManager;
+        this.timeoutService = timeoutService;
+        this.capacityService = capacityService;
+        this.metricsService = metricsService;
+    }
+
+    /**
+     * Регистрирует клиента после места у ограничителя и задержки действия register.
+     * Метрика учитывает и ожидание в очереди, и искусственную задержку.
+     */
+    public CompletableFuture<Client> register(String fullName, String phone, String username, String password) {
+        long startTime = metricsService.start(Action.REGISTER);
+        return capacityService.admit("register", () -> timeoutService.scheduleTimeout("register")
+                        .thenCompose(ignored -> clusterService.register(fullName, phone, username, password)))
+                .whenComplete((client, error) -> metricsService.stop(Action.REGISTER, outcomeOf(error), startTime));
+    }
+
+    // Проверяет логин и пароль и создает сессию; пустой результат — неверный логин или пароль
+    public CompletableFuture<Optional<String>> login(String username, String password) {
+        long startTime = metricsService.start(Action.LOGIN);
+        return capacityService.admit("login", () -> timeoutService.scheduleTimeout("login")
+                        .thenCompose(ignored -> clusterService.login(username, password)))
+                .thenApply(clientOpt -> clientOpt.map(clusterService::openSession))
+                .whenComplete((token, error) -> metricsService.stop(Action.LOGIN,
+                        error != null ? outcomeOf(error) : token.isPresent() ? Outcome.SUCCESS : Outcome.FAILURE,
+                        startTime));
+    }
+
+    // Завершает сессию; false — сессии с таким токеном не было
+    public CompletableFuture<Boolean> logout(String token) {
+        long startTime = metricsService.start(Action.LOGOUT);
+        return capacityService.admit("logout", () -> timeoutService.scheduleTimeout("logout")
+                        .thenApply(ignored -> clusterService.closeSession(token)))
+                .whenComplete((removed, error) -> metricsService.stop(Action.LOGOUT,
+                        error != null ? outcomeOf(error) : removed ? Outcome.SUCCESS : Outcome.FAILURE, startTime));
+    }
+
+    // Активна ли сессия; без искусственной задержки, место у ограничителя ждет текущий поток
+    public boolean isLoggedIn(String token) {
+        long startTime = metricsService.start(Action.IS_LOGGED);
+        Outcome outcome = Outcome.ERROR;
+        CapacityLimiter permit = null;
+        try {
+            permit = capacityService.enter("isLogged");
+            boolean loggedIn = sessionManager.isLoggedIn(token);
+            outcome = loggedIn ? Outcome.SUCCESS : Outcome.FAILURE;
+            return loggedIn;
+        } catch (CapacityExceededException e) {
+            outcome = Outcome.REJECTED;
+            throw e;
+        } finally {
+            capacityService.exit(permit);
+            metricsService.stop(Action.IS_LOGGED, outcome, startTime);
+        }
+    }
+
+    // Клиент, которому принадлежит сессия, или null, если сессии нет
+    public Client getUser(String token) {
+        long startTime = metricsService.start(Action.GET_USER);
+        Outcome outcome = Outcome.ERROR;
+        CapacityLimiter permit = null;
+        try {
+            permit = capacityService.enter("user");
+            Client client = sessionManager.getLoggedInClient(token);
+            outcome = client != null ? Outcome.SUCCESS : Outcome.FAILURE;
+            return client;
+        } catch (CapacityExceededException e) {
+            outcome = Outcome.REJECTED;
+            throw e;
+        } finally {
+            capacityService.exit(permit);
+            metricsService.stop(Action.GET_USER, outcome, startTime);
+        }
+    }
+
+    // То же, что isLoggedIn, но место у ограничителя ожидается без блокировки потока (auth.delay.mode=async)
+    public CompletableFuture<Boolean> isLoggedInAsync(String token) {
+        long startTime = metricsService.start(Action.IS_LOGGED);
+        return capacityService.admit("isLogged",
+                        () -> CompletableFuture.completedFuture(sessionManager.isLoggedIn(token)))
+                .whenComplete((loggedIn, error) -> metricsService.stop(Action.IS_LOGGED,
+                        error != null ? outcomeOf(error) : loggedIn ? Outcome.SUCCESS : Outcome.FAILURE, startTime));
+    }
+
+    // То же, что getUser, но без блокировки потока; пустой результат — сессии нет
+    public CompletableFuture<Optional<Client>> getUserAsync(String token) {
+        long startTime = metricsService.start(Action.GET_USER);
+        return capacityService.admit("user",
+                        () -> CompletableFuture.completedFuture(sessionManager.getClient(token)))
+                .whenComplete((client, error) -> metricsService.stop(Action.GET_USER,
+                        error != null ? outcomeOf(error) : client.isPresent() ? Outcome.SUCCESS : Outcome.FAILURE,
+                        startTime));
+    }
+
+    // Итог по исключению: занятый логин — отказ, ограничитель — rejected, остальное — ошибка
+    public static Outcome outcomeOf(Throwable error) {
+        if (error == null) {
+            return Outcome.SUCCESS;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CapacityExceededException) {
+            return Outcome.REJECTED;
+        }
+        return cause instanceof DuplicateUsernameException ? Outcome.FAILURE : Outcome.ERROR;
+    }
+}
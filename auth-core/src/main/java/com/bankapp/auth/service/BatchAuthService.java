@@ -0,0 +1,338 @@
+package com.bankapp.auth.service;
+
+import com.bankapp.auth.cluster.ClusterService;
+import com.bankapp.auth.model.LatencyDistribution;
+import com.bankapp.auth.service.CustomMetricsService.Outcome;
+import com.bankapp.auth.util.CapacityLimiter;
+import com.bankapp.auth.util.DelayScheduler;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Пакетная регистрация и проверка паролей: NDJSON-поток элементов вместо сотни отдельных запросов.
+ * Строки читаются и разбираются в вызывающем потоке, элементы обрабатываются параллельно
+ * (не больше auth.batch.parallelism одновременно) на узле-владельце логина, а результаты отдаются
+ * в порядке завершения — тоже в вызывающем потоке, поэтому получателю не нужна синхронизация.
+ * Место у ограничителя занимает весь пакет (действия register-batch и login-batch), задержка —
+ * одна на пакет (распределение действия register-batch или login-batch, без него — register или login),
+ * на каждый элемент или никакой. Задержку пакета можно выдержать заранее через delay, не занимая поток.
+ */
+@Service
+public class BatchAuthService {
+
+    // Вид пакета: действие элемента (распределение задержки по умолчанию) и действие пакета
+    public enum Kind {
+        REGISTER("register"), LOGIN("login");
+
+        private final String action;
+
+        Kind(String action) {
+            this.action = action;
+        }
+
+        public String action() {
+            return action;
+        }
+
+        // Действие пакета в ограничителях и распределениях задержек, например register-batch
+        public String batchAction() {
+            return action + "-batch";
+        }
+    }
+
+    // Модель задержки: batch — одна на пакет до обработки, item — своя у каждого элемента, none — без задержки
+    public enum Delay {
+        BATCH, ITEM, NONE;
+
+        public static Delay parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Batch delay must be batch, item or none: " + value, e);
+            }
+        }
+    }
+
+    // Элемент пакета регистрации — те же поля, что у /auth/register
+    public record RegisterItem(String fullName, String phone, String username, String password) {
+    }
+
+    // Элемент пакета проверки паролей
+    public record LoginItem(String username, String password) {
+    }
+
+    /**
+     * Результат элемента: index — номер строки с данными в пакете (с нуля), outcome — success, failure
+     * (логин занят или неверный пароль), rejected (превышен размер пакета) или error (в error — причина).
+     * id — клиент при успешной регистрации, token — сессия при входе с открытием сессий.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ItemResult(int index, String username, String outcome, String id, String token, String error) {
+    }
+
+    // Итог пакета для журнала
+    public record Summary(int items, int succeeded, int failed, long elapsedMillis) {
+    }
+
+    /**
+     * Место пакета у ограничителя. Освобождается один раз: по окончании register или login либо через release,
+     * если обработка так и не началась (клиент отключился, истек таймаут асинхронного запроса).
+     */
+    public static final class Permit {
+        private final Kind kind;
+        private final CapacityLimiter limiter;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean delayed; // Задержка пакета уже выдержана через delay
+
+        private Permit(Kind kind, CapacityLimiter limiter) {
+            this.kind = kind;
+            this.limiter = limiter;
+        }
+
+        public Kind kind() {
+            return kind;
+        }
+    }
+
+    // Метрики одного вида пакета
+    private record KindMetrics(DistributionSummary size, Timer duration, Counter[] items) {
+    }
+
+    private final ClusterService clusterService;
+    private final TimeoutService timeoutService;
+    private final CapacityService capacityService;
+    private final DelayScheduler delayScheduler;
+    private final ObjectReader registerReader;
+    private final ObjectReader loginReader;
+    private final int parallelism;
+    private final int maxSize;
+    private final Delay defaultDelay;
+    private final KindMetrics[] metrics = new KindMetrics[Kind.values().length];
+
+    public BatchAuthService(ClusterService clusterService, TimeoutService timeoutService,
+                            CapacityService capacityService, DelayScheduler delayScheduler,
+                            ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                            @Value("${auth.batch.parallelism:64}") int parallelism,
+                            @Value("${auth.batch.max-size:10000}") int maxSize,
+                            @Value("${auth.batch.delay:batch}") String defaultDelay) {
+        if (parallelism < 1 || maxSize < 1) {
+            throw new IllegalArgumentException("auth.batch.parallelism and auth.batch.max-size must be positive");
+        }
+        this.clusterService = clusterService;
+        this.timeoutService = timeoutService;
+        this.capacityService = capacityService;
+        this.delayScheduler = delayScheduler;
+        this.registerReader = objectMapper.readerFor(RegisterItem.class);
+        this.loginReader = objectMapper.readerFor(LoginItem.class);
+        this.parallelism = parallelism;
+        this.maxSize = maxSize;
+        this.defaultDelay = Delay.parse(defaultDelay);
+        for (Kind kind : Kind.values()) {
+            Counter[] items = new Counter[Outcome.values().length];
+            for (Outcome outcome : Outcome.values()) {
+                items[outcome.ordinal()] = Counter.builder("auth_batch_items_total")
+                        .description("Processed batch items")
+                        .tags("action", kind.action(), "outcome", outcome.tag())
+                        .register(meterRegistry);
+            }
+            metrics[kind.ordinal()] = new KindMetrics(
+                    DistributionSummary.builder("auth_batch_size")
+                            .description("Items per batch request")
+                            .baseUnit("items")
+                            .tags("action", kind.action())
+                            .publishPercentiles(0.5, 0.99)
+                            .register(meterRegistry),
+                    Timer.builder("auth_batch_duration")
+                            .description("Batch processing time from admission to the last result, including the delay")
+                            .tags("action", kind.action())
+                            .register(meterRegistry),
+                    items);
+        }
+    }
+
+    public Delay getDefaultDelay() {
+        return defaultDelay;
+    }
+
+    /**
+     * Занимает место у ограничителя действия пакета; отказ — CapacityExceededException.
+     * Вызывается до начала ответа, чтобы отказ можно было вернуть кодом 429/503.
+     * Полученное место передается в register или login, которые его освобождают.
+     */
+    public Permit admit(Kind kind) {
+        return new Permit(kind, capacityService.enter(kind.batchAction()));
+    }
+
+    /**
+     * Задержка пакета (Delay.BATCH) до чтения элементов: в режиме auth.delay.mode=async поток не занимается.
+     * Без этого вызова register и login выдерживают задержку пакета сами, в вызывающем потоке.
+     */
+    public CompletableFuture<Void> delay(Permit permit, Delay delay) {
+        if (delay != Delay.BATCH || permit.delayed) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return delayScheduler.delay(batchDelayNanos(permit.kind)).thenRun(() -> permit.delayed = true);
+    }
+
+    // Освобождает место пакета; повторный вызов ничего не делает
+    public void release(Permit permit) {
+        if (permit.released.compareAndSet(false, true)) {
+            capacityService.exit(permit.limiter);
+        }
+    }
+
+    // Регистрирует клиентов из NDJSON-потока, результаты — в results по мере завершения
+    public Summary register(InputStream input, Delay delay, Permit permit,
+                            Consumer<ItemResult> results) throws IOException {
+        return process(Kind.REGISTER, input, delay, permit, results, (index, line) -> {
+            RegisterItem item = registerReader.readValue(line);
+            return clusterService.register(item.fullName(), item.phone(), item.username(), item.password())
+                    .handle((client, error) -> error == null
+                            ? new ItemResult(index, item.username(), Outcome.SUCCESS.tag(), client.getId(), null, null)
+                            : failed(index, item.username(), error));
+        });
+    }
+
+    // Проверяет пары логин-пароль из NDJSON-потока; openSessions — создавать сессию для верных пар
+    public Summary login(InputStream input, Delay delay, boolean openSessions, Permit permit,
+                         Consumer<ItemResult> results) throws IOException {
+        return process(Kind.LOGIN, input, delay, permit, results, (index, line) -> {
+            LoginItem item = loginReader.readValue(line);
+            return clusterService.login(item.username(), item.password())
+                    .handle((client, error) -> {
+                        if (error != null) {
+                            return failed(index, item.username(), error);
+                        }
+                        if (client.isEmpty()) {
+                            return new ItemResult(index, item.username(), Outcome.FAILURE.tag(), null, null, null);
+                        }
+                        String token = openSessions ? clusterService.openSession(client.get()) : null;
+                        return new ItemResult(index, item.username(), Outcome.SUCCESS.tag(), client.get().getId(),
+                                token, null);
+                    });
+        });
+    }
+
+    // Обработка одного элемента: разбор строки и запуск операции
+    @FunctionalInterface
+    private interface ItemHandler {
+        CompletableFuture<ItemResult> start(int index, String line) throws IOException;
+    }
+
+    private Summary process(Kind kind, InputStream input, Delay delay, Permit permit,
+                            Consumer<ItemResult> results, ItemHandler handler) throws IOException {
+        KindMetrics kindMetrics = metrics[kind.ordinal()];
+        long start = permit.startNanos;
+        // Завершенные элементы ждут здесь, пока вызывающий поток не отдаст их получателю
+        BlockingQueue<ItemResult> completed = new LinkedBlockingQueue<>();
+        int items = 0;
+        int inFlight = 0;
+        int succeeded = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            // Уже выдержанная через delay задержка не повторяется
+            delay(permit, delay).join();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                int index = items++;
+                if (index >= maxSize) {
+                    succeeded += emit(kindMetrics, results, new ItemResult(index, null, Outcome.REJECTED.tag(),
+                            null, null, "batch size limit " + maxSize + " exceeded"));
+                    continue;
+                }
+                // Окно параллельности заполнено — отдаем результаты, пока не освободится место
+                for (; inFlight >= parallelism; inFlight--) {
+                    succeeded += emit(kindMetrics, results, take(completed));
+                }
+                for (ItemResult ready = completed.poll(); ready != null; ready = completed.poll(), inFlight--) {
+                    succeeded += emit(kindMetrics, results, ready);
+                }
+                String row = line;
+                CompletableFuture<ItemResult> result;
+                try {
+                    result = delay == Delay.ITEM
+                            ? timeoutService.scheduleTimeout(kind.action()).thenCompose(ignored -> start(handler, index, row))
+                            : handler.start(index, row);
+                } catch (IOException | RuntimeException e) {
+                    result = CompletableFuture.completedFuture(failed(index, null, e));
+                }
+                inFlight++;
+                result.whenComplete((value, error) ->
+                        completed.add(error == null ? value : failed(index, null, error)));
+            }
+            for (; inFlight > 0; inFlight--) {
+                succeeded += emit(kindMetrics, results, take(completed));
+            }
+        } finally {
+            release(permit);
+            kindMetrics.size().record(items);
+            kindMetrics.duration().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return new Summary(items, succeeded, items - succeeded, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Разбор строки после задержки элемента: ошибка разбора становится результатом, а не исключением
+    private static CompletableFuture<ItemResult> start(ItemHandler handler, int index, String line) {
+        try {
+            return handler.start(index, line);
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.completedFuture(failed(index, null, e));
+        }
+    }
+
+    // Задержка пакета: распределение действия пакета, без него — действия элемента
+    private long batchDelayNanos(Kind kind) {
+        LatencyDistribution distribution = timeoutService.findDistribution(kind.batchAction());
+        return distribution != null ? distribution.sampleNanos() : timeoutService.sampleNanos(kind.action());
+    }
+
+    // Отдает результат получателю и считает его; 1 — элемент успешен
+    private static int emit(KindMetrics kindMetrics, Consumer<ItemResult> results, ItemResult result) {
+        Outcome outcome = Outcome.valueOf(result.outcome().toUpperCase(Locale.ROOT));
+        kindMetrics.items()[outcome.ordinal()].increment();
+        results.accept(result);
+        return outcome == Outcome.SUCCESS ? 1 : 0;
+    }
+
+    private static ItemResult take(BlockingQueue<ItemResult> completed) {
+        try {
+            return completed.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    // Ошибка элемента: занятый логин — failure, остальное — error с причиной
+    private static ItemResult failed(int index, String username, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String message = cause instanceof JsonProcessingException json ? "invalid JSON: " + json.getOriginalMessage()
+                : cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        return new ItemResult(index, username, AuthService.outcomeOf(cause).tag(), null, null, message);
+    }
+}
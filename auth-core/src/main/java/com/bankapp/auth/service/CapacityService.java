@@ -0,0 +1,198 @@
+package com.bankapp.auth.service;
+
+import com.bankapp.auth.model.CapacityLimits;
+import com.bankapp.auth.util.CapacityExceededException;
+import com.bankapp.auth.util.CapacityLimiter;
+import com.bankapp.auth.util.DelayScheduler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Эмуляция насыщения: ограничители частоты и параллельности по действиям и их метрики.
+ * Действие без ограничений обрабатывается сразу, без обращения к ограничителю.
+ */
+@Service
+public class CapacityService {
+
+    // Ограничитель и метрики одного действия
+    private record ActionCapacity(CapacityLimiter limiter, Timer queueWait, Counter rateRejected,
+                                  Counter queueFullRejected, Counter queueTimeoutRejected) {
+
+        Counter rejected(CapacityExceededException.Reason reason) {
+            return switch (reason) {
+                case RATE -> rateRejected;
+                case QUEUE_FULL -> queueFullRejected;
+                case QUEUE_TIMEOUT -> queueTimeoutRejected;
+            };
+        }
+    }
+
+    // Ключ — действие, значение — ограничитель; нет записи — ограничений нет
+    private final Map<String, ActionCapacity> capacities = new ConcurrentHashMap<>();
+    // Действия, для которых уже зарегистрированы gauge (gauge переживают замену ограничителя)
+    private final Set<String> gauges = ConcurrentHashMap.newKeySet();
+
+    private final DelayScheduler delayScheduler;
+    private final MeterRegistry meterRegistry;
+
+    public CapacityService(DelayScheduler delayScheduler, MeterRegistry meterRegistry) {
+        this.delayScheduler = delayScheduler;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Выполняет асинхронную обработку запроса действия после получения места у ограничителя.
+     * Без ограничений для действия обработка запускается сразу. В режиме blocking запрос ждет места
+     * в своем потоке (как поток пула насыщенного сервиса), в режиме async — без занятия потока.
+     * Отказ — future с CapacityExceededException.
+     */
+    public <T> CompletableFuture<T> admit(String action, Supplier<CompletableFuture<T>> work) {
+        ActionCapacity capacity = capacities.get(action);
+        if (capacity == null) {
+            return work.get();
+        }
+        long startTime = System.nanoTime();
+        CompletableFuture<Void> permit = capacity.limiter().acquire();
+        if (!permit.isDone() && delayScheduler.getMode() == DelayScheduler.Mode.BLOCKING) {
+            permit.handle((ignored, error) -> null).join();
+        }
+        // Место принадлежит либо обработке, либо освобождению после отмены — кто первым его заберет
+        AtomicBoolean claimed = new AtomicBoolean();
+        CompletableFuture<T> admitted = permit.handle((ignored, error) -> error).thenCompose(error -> {
+            if (error != null) {
+                return CompletableFuture.failedFuture(rejected(capacity, error));
+            }
+            if (!claimed.compareAndSet(false, true)) {
+                return CompletableFuture.failedFuture(new CancellationException());
+            }
+            capacity.queueWait().record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            CompletableFuture<T> result;
+            try {
+                result = work.get();
+            } catch (RuntimeException e) {
+                capacity.limiter().release();
+                throw e;
+            }
+            // Место освобождается по завершении обработки, в том числе с ошибкой
+            return result.whenComplete((value, failure) -> capacity.limiter().release());
+        });
+        // Вызывающий отменил future (клиент отключился), пока запрос ждал в очереди: обработка не запустится,
+        // поэтому выданное место возвращаем сами — и при отмене до выдачи места, и после
+        Runnable releaseIfCancelled = () -> {
+            if (admitted.isCancelled() && permit.isDone() && !permit.isCompletedExceptionally()
+                    && claimed.compareAndSet(false, true)) {
+                capacity.limiter().release();
+            }
+        };
+        permit.thenRun(releaseIfCancelled);
+        admitted.whenComplete((value, failure) -> releaseIfCancelled.run());
+        return admitted;
+    }
+
+    /**
+     * Синхронный вариант admit: ждет места в текущем потоке и возвращает ограничитель,
+     * который нужно передать в exit после обработки (null — ограничений нет).
+     */
+    public CapacityLimiter enter(String action) {
+        ActionCapacity capacity = capacities.get(action);
+        if (capacity == null) {
+            return null;
+        }
+        long startTime = System.nanoTime();
+        try {
+            capacity.limiter().acquire().join();
+        } catch (CompletionException e) {
+            throw rejected(capacity, e);
+        }
+        capacity.queueWait().record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        return capacity.limiter();
+    }
+
+    // Освобождает место, полученное через enter
+    public void exit(CapacityLimiter limiter) {
+        if (limiter != null) {
+            limiter.release();
+        }
+    }
+
+    // Ограничения действия или null, если их нет
+    public CapacityLimits getLimits(String action) {
+        ActionCapacity capacity = capacities.get(action);
+        return capacity != null ? capacity.limiter().getLimits() : null;
+    }
+
+    // Новый ограничитель заменяет старый; запросы, занявшие место в старом, освобождают его там же
+    public void setLimits(String action, CapacityLimits limits) {
+        Timer queueWait = Timer.builder("auth_capacity_queue_wait")
+                .description("Time requests spent waiting for rate or concurrency capacity")
+                .tags("action", action)
+                .register(meterRegistry);
+        capacities.put(action, new ActionCapacity(new CapacityLimiter(action, limits), queueWait,
+                rejectedCounter(action, "rate"), rejectedCounter(action, "queue_full"),
+                rejectedCounter(action, "queue_timeout")));
+        if (gauges.add(action)) {
+            Gauge.builder("auth_capacity_active", capacities, map -> activeOf(map.get(action)))
+                    .description("Requests holding a concurrency slot")
+                    .tags("action", action)
+                    .register(meterRegistry);
+            Gauge.builder("auth_capacity_queued", capacities, map -> queuedOf(map.get(action)))
+                    .description("Requests waiting for a concurrency slot")
+                    .tags("action", action)
+                    .register(meterRegistry);
+        }
+    }
+
+    // Снимает ограничения; запросы, уже ожидающие в очереди, дождутся своего места
+    public void removeLimits(String action) {
+        capacities.remove(action);
+    }
+
+    // Ограничения, число выполняющихся и ожидающих запросов по действиям
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        capacities.forEach((action, capacity) -> result.put(action, Map.of(
+                "limits", capacity.limiter().getLimits(),
+                "active", capacity.limiter().getActive(),
+                "queued", capacity.limiter().getQueued())));
+        return result;
+    }
+
+    private Counter rejectedCounter(String action, String reason) {
+        return Counter.builder("auth_capacity_rejected_total")
+                .description("Requests rejected by capacity emulation")
+                .tags("action", action, "reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static double activeOf(ActionCapacity capacity) {
+        return capacity != null ? capacity.limiter().getActive() : 0;
+    }
+
+    private static double queuedOf(ActionCapacity capacity) {
+        return capacity != null ? capacity.limiter().getQueued() : 0;
+    }
+
+    // Считаем отказ в метрике и возвращаем исходное исключение ограничителя
+    private static CapacityExceededException rejected(ActionCapacity capacity, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CapacityExceededException exceeded) {
+            capacity.rejected(exceeded.getReason()).increment();
+            return exceeded;
+        }
+        throw new IllegalStateException("Unexpected capacity failure", cause);
+    }
+}
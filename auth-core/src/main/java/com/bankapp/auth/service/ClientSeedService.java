@@ -0,0 +1,308 @@
+package com.bankapp.auth.service;
+
+import com.bankapp.auth.cluster.ClusterService;
+import com.bankapp.auth.model.Account;
+import com.bankapp.auth.model.Client;
+import com.bankapp.auth.util.DefaultIdGenerator;
+import com.bankapp.auth.util.IdGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.javafaker.Faker;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Массовое наполнение ClientRepository тестовыми клиентами.
+ * Клиенты генерируются пачками параллельно на отдельном ForkJoinPool. Каждая пачка использует
+ * генератор с зерном, перемешанным из seed и номера пачки, поэтому результат воспроизводим при любом числе потоков.
+ * Идентификаторы перемешиваются из зерна и номера клиента, номера счетов и карт — из номера клиента и зерна
+ * (взаимно однозначно, без повторов внутри наполнения), а не из общего IdGenerator.
+ * Пароль клиента — auth.seed.password, а если он не задан — совпадает с логином.
+ * Занятые логины пропускаются: повторное наполнение не меняет уже созданных клиентов.
+ * Клиент, номер счета или карты которого уже занят, отклоняется и считается в failed.
+ * В кластере клиент сохраняется на узле-владельце логина (ClusterService.store).
+ */
+@Service
+public class ClientSeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientSeedService.class);
+    private static final int CHUNK_SIZE = 10_000; // Клиентов в одной пачке генерации
+    private static final int IMPORT_BATCH_SIZE = 1_000; // Строк NDJSON в одной задаче импорта
+    private static final int MAX_FORWARDS = 4_096; // Клиентов, ожидающих ответа другого узла кластера
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int MAX_ACCOUNTS = 3; // Счетов у одного клиента, не больше
+    // Номера счетов — 12 цифр без ведущего нуля, у карт 9 цифр между префиксом и контрольной цифрой
+    private static final long ACCOUNT_MIN = 100_000_000_000L;
+    private static final long ACCOUNT_RANGE = 900_000_000_000L;
+    private static final long CARD_BODY_RANGE = 1_000_000_000L;
+    // Множители взаимно просты с размером диапазона: n -> (n * A + сдвиг) mod диапазон — перестановка номеров
+    private static final long ACCOUNT_MULTIPLIER = 987_654_323L;
+    private static final long CARD_MULTIPLIER = 2_654_435_761L;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    // Потоки идентификаторов: у клиентов и счетов с одинаковыми номерами разные ID
+    private static final long CLIENT_ID_STREAM = 1;
+    private static final long ACCOUNT_ID_STREAM = 2;
+
+    private final ClusterService clusterService;
+    private final ForkJoinPool pool;
+    private final ObjectReader importReader;
+    private final int startupCount;
+    private final long startupSeed;
+    private final String usernamePrefix;
+    private final String password;
+    // Faker дорого создавать и он не потокобезопасен: у каждого потока свой экземпляр со своим Random
+    private final ThreadLocal<SeededFaker> fakers = ThreadLocal.withInitial(SeededFaker::new);
+
+    public ClientSeedService(ObjectMapper objectMapper, ClusterService clusterService,
+                             @Value("${auth.seed.parallelism:0}") int parallelism,
+                             @Value("${auth.seed.count:0}") int startupCount,
+                             @Value("${auth.seed.random-seed:42}") long startupSeed,
+                             @Value("${auth.seed.username-prefix:user}") String usernamePrefix,
+                             @Value("${auth.seed.password:}") String password) {
+        this.clusterService = clusterService;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.importReader = objectMapper.readerFor(ClientImport.class);
+        this.startupCount = startupCount;
+        this.startupSeed = startupSeed;
+        this.usernamePrefix = usernamePrefix;
+        this.password = password;
+    }
+
+    // Результат наполнения: сколько клиентов создано, пропущено (логин занят) и отклонено (ошибка данных, занятый ID)
+    public record Result(int created, int skipped, int failed, long elapsedMillis) {
+    }
+
+    // Строка NDJSON-импорта; счета необязательны, незаданные номера генерируются
+    public record ClientImport(String fullName, String phone, String username, String password,
+                               List<Account> accounts) {
+    }
+
+    // Наполнение при старте, если задано auth.seed.count; в кластере каждый узел создает только свои логины
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        if (startupCount > 0) {
+            Result result = seed(startupCount, startupSeed, true);
+            log.info("Seeded {} clients on startup ({} skipped, {} failed) in {} ms",
+                    result.created(), result.skipped(), result.failed(), result.elapsedMillis());
+        }
+    }
+
+    /**
+     * Генерирует count клиентов с логинами prefix0..prefix(count-1).
+     * Одинаковые count и seed дают одинаковых клиентов — вместе с идентификаторами, номерами счетов и карт
+     * (при том же префиксе карт), независимо от auth.ids.strategy.
+     * Уже занятые логины пропускаются; клиент, чей ID принадлежит другому логину или чьи номера счетов
+     * уже заняты, считается отклоненным. В кластере клиенты чужих логинов отправляются их владельцам.
+     */
+    public Result seed(int count, long seed) {
+        return seed(count, seed, false);
+    }
+
+    /**
+     * Потоковый импорт NDJSON: по одному клиенту в строке.
+     * Строки читаются последовательно, разбор и вставка пачками идут параллельно.
+     * В кластере клиенты чужих логинов отправляются их владельцам.
+     */
+    public Result importNdjson(InputStream input) throws IOException {
+        Tally tally = new Tally();
+        // Ограничиваем число пачек в работе, чтобы не держать в памяти весь файл
+        Semaphore inFlight = new Semaphore(pool.getParallelism() * 2);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(line);
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    tasks.add(submitImport(batch, inFlight, tally));
+                    batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                tasks.add(submitImport(batch, inFlight, tally));
+            }
+        } finally {
+            tasks.forEach(ForkJoinTask::join);
+        }
+        return tally.result();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // ownedOnly — только логины этого узла (остальные узлы кластера создают свои при том же зерне)
+    private Result seed(int count, long seed, boolean ownedOnly) {
+        Tally tally = new Tally();
+        int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            SeededFaker faker = fakers.get();
+            faker.random.setSeed(mix64(mix64(seed) + chunk));
+            int from = chunk * CHUNK_SIZE;
+            int to = Math.min(count, from + CHUNK_SIZE);
+            for (int i = from; i < to; i++) {
+                // Клиент генерируется всегда: так следующие клиенты пачки не зависят от распределения логинов
+                Client client = generate(faker, seed, i);
+                if (!ownedOnly || clusterService.owns(client.getUsername())) {
+                    tally.store(client);
+                }
+            }
+        })).join();
+        return tally.result();
+    }
+
+    private ForkJoinTask<?> submitImport(List<String> lines, Semaphore inFlight, Tally tally) {
+        inFlight.acquireUninterruptibly();
+        return pool.submit(() -> {
+            try {
+                for (String line : lines) {
+                    Client client;
+                    try {
+                        ClientImport row = importReader.readValue(line);
+                        client = new Client(row.fullName(), row.phone(), row.username(), row.password());
+                        if (row.accounts() != null) {
+                            client.getAccounts().addAll(row.accounts());
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        tally.failed.incrementAndGet();
+                        continue;
+                    }
+                    tally.store(client);
+                }
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    // Клиент с номером index: имя из Faker, телефон +7, логин с префиксом, 1–3 счета
+    private Client generate(SeededFaker faker, long seed, int index) {
+        Random random = faker.random;
+        StringBuilder phone = new StringBuilder(12).append("+79");
+        for (int i = 0; i < 9; i++) {
+            phone.append((char) ('0' + random.nextInt(10)));
+        }
+        String username = usernamePrefix + index;
+        Client client = new Client(seededId(seed, CLIENT_ID_STREAM, index), faker.faker.name().fullName(),
+                phone.toString(), username, password.isEmpty() ? username : password);
+        int accounts = 1 + random.nextInt(MAX_ACCOUNTS);
+        for (int i = 0; i < accounts; i++) {
+            long slot = (long) index * MAX_ACCOUNTS + i;
+            // Конструктор восстановления резервирует номера: IdGenerator не выдаст их новым счетам
+            client.getAccounts().add(new Account(seededId(seed, ACCOUNT_ID_STREAM, slot), accountNumber(seed, slot),
+                    cardNumber(seed, slot), random.nextInt(10_000_000) / 100d));
+        }
+        return client;
+    }
+
+    // UUID v4 из зерна, потока и номера: обе половины — независимые перемешивания, разные зерна не пересекаются
+    private static String seededId(long seed, long stream, long key) {
+        long base = mix64(mix64(seed) + stream * GOLDEN_GAMMA);
+        long high = mix64(base + key) & ~0xF000L | 0x4000L;
+        long low = mix64(mix64(~base) + key) & 0x3FFF_FFFF_FFFF_FFFFL | 0x8000_0000_0000_0000L;
+        char[] chars = new char[36];
+        int pos = 0;
+        for (int i = 0; i < 32; i++) {
+            if (i == 8 || i == 12 || i == 16 || i == 20) {
+                chars[pos++] = '-';
+            }
+            long bits = i < 16 ? high : low;
+            chars[pos++] = HEX[(int) (bits >>> (60 - 4 * (i % 16))) & 0xF];
+        }
+        return new String(chars);
+    }
+
+    // Номер счета для места slot (номер клиента * 3 + номер счета): разные места — разные номера
+    private static String accountNumber(long seed, long slot) {
+        long offset = Math.floorMod(seed * GOLDEN_GAMMA, ACCOUNT_RANGE);
+        long number = ACCOUNT_MIN + Math.floorMod(slot * ACCOUNT_MULTIPLIER + offset, ACCOUNT_RANGE);
+        return Long.toString(number);
+    }
+
+    // Номер карты: префикс генератора, 9 цифр из места slot и зерна, контрольная цифра Луна
+    private static String cardNumber(long seed, long slot) {
+        long offset = Math.floorMod(seed * 0xC2B2AE3D27D4EB4FL, CARD_BODY_RANGE);
+        long body = Math.floorMod(slot % CARD_BODY_RANGE * CARD_MULTIPLIER + offset, CARD_BODY_RANGE);
+        IdGenerator ids = IdGenerator.current();
+        String prefix = ids instanceof DefaultIdGenerator generator
+                ? generator.getCardPrefix() : DefaultIdGenerator.DEFAULT_CARD_PREFIX;
+        char[] digits = new char[16];
+        prefix.getChars(0, 6, digits, 0);
+        for (int i = 14; i >= 6; i--) {
+            digits[i] = (char) ('0' + body % 10);
+            body /= 10;
+        }
+        digits[15] = (char) ('0' + IdGenerator.luhnCheckDigit(digits, 15));
+        return new String(digits);
+    }
+
+    // Финализатор SplitMix64: близкие входы дают независимые 64-битные значения
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Счетчики одного наполнения или импорта. Клиент сохраняется через ClusterService.store: свой логин —
+     * сразу, чужой — на узле-владельце; ответов владельцев ждем не больше MAX_FORWARDS одновременно.
+     */
+    private final class Tally {
+        private final long start = System.nanoTime();
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final Semaphore forwards = new Semaphore(MAX_FORWARDS);
+
+        void store(Client client) {
+            forwards.acquireUninterruptibly();
+            clusterService.store(client).whenComplete((stored, error) -> {
+                if (error != null) {
+                    failed.incrementAndGet();
+                } else if (stored) {
+                    created.incrementAndGet();
+                } else {
+                    skipped.incrementAndGet();
+                }
+                forwards.release();
+            });
+        }
+
+        // Дожидается ответов всех владельцев и возвращает итог
+        Result result() {
+            forwards.acquireUninterruptibly(MAX_FORWARDS);
+            forwards.release(MAX_FORWARDS);
+            return new Result(created.get(), skipped.get(), failed.get(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    // Faker вместе со своим Random: зерно переустанавливается перед каждой пачкой
+    private static final class SeededFaker {
+        private final Random random = new Random();
+        private final Faker faker = new Faker(new Locale("ru"), random);
+    }
+}
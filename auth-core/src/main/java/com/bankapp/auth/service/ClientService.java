@@ -0,0 +1,67 @@
+package com.bankapp.auth.service;
+
+import com.bankapp.auth.model.Account;
+import com.bankapp.auth.model.Client;
+import com.bankapp.auth.repository.ClientRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class ClientService {
+
+    private final CredentialService credentialService;
+
+    public ClientService(CredentialService credentialService) {
+        this.credentialService = credentialService;
+    }
+
+    public Client register(String fullName, String phone, String username, String password) {
+        return registerAsync(fullName, phone, username, password).join();
+    }
+
+    // Регистрация с хешированием пароля в пуле CredentialService
+    public CompletableFuture<Client> registerAsync(String fullName, String phone, String username, String password) {
+        return credentialService.hash(password).thenApply(hash -> {
+            // При хешировании пароль как есть не сохраняется
+            Client client = new Client(fullName, phone, username, hash == null ? password : null);
+            client.setPasswordHash(hash);
+            return ClientRepository.save(client);
+        });
+    }
+
+    /**
+     * Сохраняет готового клиента (наполнение, импорт); false — логин уже занят (существующий клиент не меняется
+     * и не пишется в журнал заново). Клиент со счетом, номер которого уже занят другим счетом, отклоняется
+     * (IllegalArgumentException).
+     */
+    public boolean insert(Client client) {
+        if (ClientRepository.findByUsername(client.getUsername()).isPresent()) {
+            return false;
+        }
+        for (Account account : client.getAccounts()) {
+            if (account.hasTakenNumbers()) {
+                throw new IllegalArgumentException("Account or card number is already taken: "
+                        + account.getAccountNumber() + " / " + account.getCardNumber());
+            }
+        }
+        return ClientRepository.saveIfAbsent(client);
+    }
+
+    public Optional<Client> login(String username, String password) {
+        return loginAsync(username, password).join();
+    }
+
+    // Проверка пароля: для алгоритмов с хешированием выполняется в пуле CredentialService
+    public CompletableFuture<Optional<Client>> loginAsync(String username, String password) {
+        Optional<Client> clientOpt = ClientRepository.findByUsername(username);
+        if (clientOpt.isEmpty()) {
+            // Неизвестный логин стоит столько же, сколько неверный пароль
+            return credentialService.verifyUnknown(password).thenApply(ignored -> Optional.empty());
+        }
+        Client client = clientOpt.get();
+        return credentialService.verify(client, password)
+                .thenApply(matches -> matches ? Optional.of(client) : Optional.empty());
+    }
+}
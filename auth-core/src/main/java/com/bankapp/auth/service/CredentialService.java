@@ -0,0 +1,216 @@
+package com.bankapp.auth.service;
+
+import com.bankapp.auth.model.Client;
+import com.bankapp.auth.repository.ClientRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Проверка паролей с настраиваемой стоимостью по CPU.
+ * Алгоритм (plain, pbkdf2, bcrypt, scrypt) и коэффициент стоимости задаются в настройках,
+ * хеширование выполняется в пуле из N потоков (по умолчанию по числу ядер) с ограниченной очередью:
+ * при переполнении запрос отклоняется, как у реального сервиса при нехватке CPU.
+ * Необязательный кэш недавно проверенных паролей позволяет сравнить «холодный» и «теплый» режимы.
+ * Клиенты из генерации и импорта создаются без хеша: пароль хешируется при первой проверке (иначе наполнение
+ * миллионом клиентов заняло бы часы), после этого пароль как есть у клиента не хранится.
+ */
+@Service
+public class CredentialService {
+
+    public enum Algorithm { PLAIN, PBKDF2, BCRYPT, SCRYPT }
+
+    private final Algorithm algorithm;
+    private final PasswordEncoder encoder; // null для plain
+    private final ThreadPoolExecutor hashingPool;
+    private final int cacheSize;
+    // Кэш проверенных паролей: логин → пароль, который совпал с указанным хешем
+    private final ConcurrentHashMap<String, VerifiedCredential> cache = new ConcurrentHashMap<>();
+    // Хеш, с которым сравнивается пароль для неизвестного логина (создается при первой такой проверке)
+    private volatile String unknownUserHash;
+
+    private final Timer hashTimer;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    public CredentialService(@Value("${auth.credentials.algorithm:plain}") String algorithm,
+                             @Value("${auth.credentials.cost:0}") int cost,
+                             @Value("${auth.credentials.threads:0}") int threads,
+                             @Value("${auth.credentials.queue-size:10000}") int queueSize,
+                             @Value("${auth.credentials.cache-size:0}") int cacheSize,
+                             MeterRegistry meterRegistry) {
+        this.algorithm = Algorithm.valueOf(algorithm.trim().toUpperCase());
+        this.encoder = createEncoder(this.algorithm, cost);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.hashingPool = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), r -> {
+                    Thread thread = new Thread(r, "auth-hashing");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.cacheSize = cacheSize;
+
+        this.hashTimer = Timer.builder("auth_credential_hash_duration")
+                .description("CPU time spent hashing or verifying one password")
+                .tags("algorithm", this.algorithm.name().toLowerCase())
+                .register(meterRegistry);
+        this.cacheHits = Counter.builder("auth_credential_cache_total")
+                .description("Password verifications answered by the verified-credential cache")
+                .tags("result", "hit")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("auth_credential_cache_total")
+                .description("Password verifications answered by the verified-credential cache")
+                .tags("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("auth_credential_queue_size", hashingPool, pool -> pool.getQueue().size())
+                .description("Password hashing tasks waiting for a free core")
+                .register(meterRegistry);
+    }
+
+    // Описание выбранного алгоритма и коэффициента стоимости (значения по умолчанию — как в Spring Security)
+    private static PasswordEncoder createEncoder(Algorithm algorithm, int cost) {
+        return switch (algorithm) {
+            case PLAIN -> null;
+            case PBKDF2 -> new Pbkdf2PasswordEncoder("", 16, cost > 0 ? cost : 310_000,
+                    Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+            case BCRYPT -> new BCryptPasswordEncoder(cost > 0 ? cost : 10);
+            case SCRYPT -> new SCryptPasswordEncoder(cost > 0 ? cost : 16_384, 8, 1, 32, 16);
+        };
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Хеш пароля для сохранения в Client. Для plain возвращает null — хранится только сам пароль.
+     * Если пул хеширования переполнен, future завершается RejectedExecutionException.
+     */
+    public CompletableFuture<String> hash(String password) {
+        if (encoder == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return submit(() -> encoder.encode(password));
+    }
+
+    /**
+     * Проверяет пароль клиента. Для plain — сравнение строк в текущем потоке,
+     * для остальных алгоритмов — проверка хеша в пуле (или ответ из кэша).
+     */
+    public CompletableFuture<Boolean> verify(Client client, String password) {
+        if (encoder == null) {
+            String stored = client.getPassword();
+            return CompletableFuture.completedFuture(stored != null && stored.equals(password));
+        }
+        String storedHash = client.getPasswordHash();
+        if (cacheSize > 0 && storedHash != null) {
+            VerifiedCredential cached = cache.get(client.getUsername());
+            if (cached != null && cached.hash().equals(storedHash) && cached.password().equals(password)) {
+                cacheHits.increment();
+                return CompletableFuture.completedFuture(true);
+            }
+            // Неверный пароль всегда проверяется хешем, как у реального сервиса
+            cacheMisses.increment();
+        }
+        return submit(() -> {
+            String hash = client.getPasswordHash();
+            if (hash == null) {
+                hash = hashStoredPassword(client, encoder);
+            }
+            boolean matches = encoder.matches(password, hash);
+            if (matches && cacheSize > 0) {
+                remember(client.getUsername(), password, hash);
+            }
+            return matches;
+        });
+    }
+
+    /**
+     * Проверка для неизвестного логина: тот же расход CPU, что у неверного пароля, чтобы время ответа
+     * не выдавало, существует ли логин. Результат всегда false.
+     */
+    public CompletableFuture<Boolean> verifyUnknown(String password) {
+        if (encoder == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return submit(() -> {
+            String hash = unknownUserHash;
+            if (hash == null) {
+                unknownUserHash = hash = encoder.encode("unknown-user");
+            }
+            encoder.matches(password, hash);
+            return false;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                try {
+                    return work.get();
+                } finally {
+                    hashTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }, hashingPool);
+        } catch (RejectedExecutionException e) {
+            // Все ядра заняты и очередь полна — отказ вместо бесконечного ожидания
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // Клиент создан без хеша (генерация, импорт): хешируем сохраненный пароль один раз и забываем его.
+    // Изменение уходит слушателю сохранений, поэтому журнал получает хеш вместо пароля до следующего снимка
+    private static String hashStoredPassword(Client client, PasswordEncoder encoder) {
+        String hash;
+        synchronized (client) {
+            hash = client.getPasswordHash();
+            if (hash != null) {
+                return hash;
+            }
+            hash = encoder.encode(client.getPassword());
+            client.setPasswordHash(hash);
+            client.setPassword(null);
+        }
+        ClientRepository.notifySaved(client);
+        return hash;
+    }
+
+    // Запоминаем проверенный пароль; при заполнении кэша вытесняем произвольную запись
+    private void remember(String username, String password, String hash) {
+        if (cache.size() >= cacheSize) {
+            Iterator<String> keys = cache.keySet().iterator();
+            if (keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        cache.put(username, new VerifiedCredential(password, hash));
+    }
+
+    // Пароль, прошедший проверку против конкретного хеша (при смене хеша запись перестает совпадать)
+    private record VerifiedCredential(String password, String hash) {
+    }
+}
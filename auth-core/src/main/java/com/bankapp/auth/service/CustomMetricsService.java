@@ -0,0 +1,105 @@
+package com.bankapp.auth.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Метрики эндпоинтов аутентификации.
+ * Все счетчики, таймеры и gauge регистрируются один раз при старте с тегами action и outcome
+ * и хранятся в массивах по ordinal, поэтому запись метрики на пути запроса не ищет их в реестре
+ * и не создает объектов. Таймер публикует гистограмму по SLO-границам и процентили.
+ */
+@Service
+public class CustomMetricsService {
+
+    // Действие, для которого пишется метрика (значение тега action)
+    public enum Action {
+        REGISTER("register"), LOGIN("login"), LOGOUT("logout"), IS_LOGGED("is_logged"), GET_USER("get_user");
+
+        private final String tag;
+
+        Action(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    // Итог запроса: success — операция выполнена, failure — отказ по бизнес-причине
+    // (неверный пароль, нет сессии, логин занят), rejected — отказ ограничителя пропускной способности,
+    // error — исключение
+    public enum Outcome {
+        SUCCESS, FAILURE, REJECTED, ERROR;
+
+        public String tag() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final Counter[][] requests = new Counter[Action.values().length][Outcome.values().length];
+    private final Timer[][] durations = new Timer[Action.values().length][Outcome.values().length];
+    private final AtomicInteger[] inFlight = new AtomicInteger[Action.values().length];
+
+    public CustomMetricsService(MeterRegistry meterRegistry,
+                                @Value("${auth.metrics.slo:5ms,10ms,25ms,50ms,100ms,250ms,500ms,1s,2500ms,5s,10s,30s,60s}")
+                                List<Duration> slo,
+                                @Value("${auth.metrics.percentiles:0.5,0.95,0.99,0.999}") double[] percentiles) {
+        Duration[] buckets = slo.toArray(Duration[]::new);
+        for (Action action : Action.values()) {
+            AtomicInteger current = new AtomicInteger();
+            inFlight[action.ordinal()] = current;
+            Gauge.builder("auth_requests_in_flight", current, AtomicInteger::get)
+                    .description("Requests currently being processed, including the artificial delay")
+                    .tags("action", action.tag())
+                    .register(meterRegistry);
+            for (Outcome outcome : Outcome.values()) {
+                requests[action.ordinal()][outcome.ordinal()] = Counter.builder("auth_requests_total")
+                        .description("Completed auth requests")
+                        .tags("action", action.tag(), "outcome", outcome.tag())
+                        .register(meterRegistry);
+                durations[action.ordinal()][outcome.ordinal()] = Timer.builder("auth_request_duration")
+                        .description("End-to-end auth request latency, including the artificial delay")
+                        .tags("action", action.tag(), "outcome", outcome.tag())
+                        .serviceLevelObjectives(buckets)
+                        .publishPercentiles(percentiles)
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    /**
+     * Отмечает начало запроса: увеличивает gauge выполняющихся запросов.
+     * Возвращает время начала, которое нужно передать в stop.
+     */
+    public long start(Action action) {
+        inFlight[action.ordinal()].incrementAndGet();
+        return System.nanoTime();
+    }
+
+    // Отмечает завершение запроса, начатого через start
+    public void stop(Action action, Outcome outcome, long startNanos) {
+        long duration = System.nanoTime() - startNanos;
+        inFlight[action.ordinal()].decrementAndGet();
+        requests[action.ordinal()][outcome.ordinal()].increment();
+        durations[action.ordinal()][outcome.ordinal()].record(duration, TimeUnit.NANOSECONDS);
+    }
+
+    public int getInFlight(Action action) {
+        return inFlight[action.ordinal()].get();
+    }
+
+    public long getCount(Action action, Outcome outcome) {
+        return (long) requests[action.ordinal()][outcome.ordinal()].count();
+    }
+}
@@ -0,0 +1,66 @@
+package com.bankapp.auth.service;
+
+import com.bankapp.auth.util.DefaultIdGenerator;
+import com.bankapp.auth.util.IdGenerator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+
+/**
+ * Устанавливает генератор идентификаторов и номеров из auth.ids.* вместо генератора по умолчанию
+ * и публикует его метрики: повторы номеров и число занятых номеров.
+ * Номера, занятые до установки (восстановленные из снимка), переходят к новому генератору.
+ */
+@Service
+public class IdGenerationService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGenerationService.class);
+
+    private final DefaultIdGenerator generator;
+
+    public IdGenerationService(MeterRegistry meterRegistry,
+                               @Value("${auth.ids.strategy:random}") String strategy,
+                               @Value("${auth.ids.card-prefix:" + DefaultIdGenerator.DEFAULT_CARD_PREFIX + "}")
+                               String cardPrefix) {
+        IdGenerator previous = IdGenerator.current();
+        this.generator = new DefaultIdGenerator(parseStrategy(strategy), cardPrefix,
+                previous instanceof DefaultIdGenerator defaults ? defaults : null);
+        IdGenerator.install(generator);
+        log.info("ID generation strategy {}, card prefix {}", generator.getStrategy(), generator.getCardPrefix());
+
+        FunctionCounter.builder("auth_ids_collisions_total", generator, DefaultIdGenerator::getAccountCollisions)
+                .description("Generated numbers that were already taken and were drawn again")
+                .tag("kind", "account")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth_ids_collisions_total", generator, DefaultIdGenerator::getCardCollisions)
+                .description("Generated numbers that were already taken and were drawn again")
+                .tag("kind", "card")
+                .register(meterRegistry);
+        Gauge.builder("auth_ids_issued", generator, DefaultIdGenerator::getIssuedAccountNumbers)
+                .description("Account and card numbers issued or restored in this process")
+                .tag("kind", "account")
+                .register(meterRegistry);
+        Gauge.builder("auth_ids_issued", generator, DefaultIdGenerator::getIssuedCardNumbers)
+                .description("Account and card numbers issued or restored in this process")
+                .tag("kind", "card")
+                .register(meterRegistry);
+    }
+
+    public DefaultIdGenerator getGenerator() {
+        return generator;
+    }
+
+    private static DefaultIdGenerator.Strategy parseStrategy(String value) {
+        try {
+            return DefaultIdGenerator.Strategy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("auth.ids.strategy must be random, time or sequential: " + value, e);
+        }
+    }
+}
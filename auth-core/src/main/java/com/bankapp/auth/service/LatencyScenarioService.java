@@ -0,0 +1,237 @@
+package com.bankapp.auth.service;
+
+import com.bankapp.auth.model.LatencyDistribution;
+import com.bankapp.auth.model.LatencyScenario;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проигрывает сценарии задержек: раз в тик (auth.scenario.tick) вычисляет текущее значение каждого сценария
+ * и устанавливает его в TimeoutService как масштабированное исходное распределение действия.
+ * Путь запроса по-прежнему делает один поиск в карте таймаутов, сколько бы участков ни было в сценарии.
+ * Все состояние сценариев принадлежит одному потоку тиков, эндпоинты передают ему задачи.
+ */
+@Service
+public class LatencyScenarioService {
+
+    private static final Logger log = LoggerFactory.getLogger(LatencyScenarioService.class);
+
+    // Ход сценария: номер участка и значение на последнем тике
+    public record Progress(double elapsedMs, double totalMs, int segment, String segmentType, boolean loop) {
+    }
+
+    // Действующая задержка действия; scenario == null — сценарий не запущен
+    public record EffectiveTimeout(double nominalMs, LatencyDistribution distribution, Progress scenario) {
+    }
+
+    private final TimeoutService timeoutService;
+    private final long tickNanos;
+    private final ScheduledExecutorService ticker;
+    // Доступны только из потока тиков
+    private final Map<String, Run> runs = new HashMap<>();
+    private ScheduledFuture<?> tickTask;
+
+    public LatencyScenarioService(TimeoutService timeoutService,
+                                  @Value("${auth.scenario.tick:100ms}") Duration tick) {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("auth.scenario.tick must be positive");
+        }
+        this.timeoutService = timeoutService;
+        this.tickNanos = tick.toNanos();
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "auth-latency-scenario");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Запускает сценарии с текущего момента; сценарий действия, который уже идет, заменяется,
+     * но исходным по-прежнему считается распределение до первого сценария.
+     */
+    public Map<String, EffectiveTimeout> start(Map<String, LatencyScenario> scenarios) {
+        return call(() -> {
+            long now = System.nanoTime();
+            scenarios.forEach((action, scenario) -> {
+                Run previous = runs.get(action);
+                Run run = previous != null
+                        ? new Run(action, scenario, previous.original, previous.shape, now)
+                        : new Run(action, scenario, timeoutService.findDistribution(action),
+                                timeoutService.getDistribution(action), now);
+                runs.put(action, run);
+                apply(run, now);
+                log.info("Started latency scenario for '{}': {} segments, {} ms", action,
+                        scenario.segments().size(), (long) run.totalMs);
+            });
+            if (tickTask == null && !runs.isEmpty()) {
+                tickTask = ticker.scheduleAtFixedRate(this::tick, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+            }
+            return effective();
+        });
+    }
+
+    // Останавливает сценарий действия (null — все сценарии) с восстановлением исходного распределения
+    public Map<String, EffectiveTimeout> stop(String action) {
+        return call(() -> {
+            Iterator<Run> iterator = runs.values().iterator();
+            while (iterator.hasNext()) {
+                Run run = iterator.next();
+                if (action == null || action.equals(run.action)) {
+                    timeoutService.setDistribution(run.action, run.original);
+                    iterator.remove();
+                }
+            }
+            return effective();
+        });
+    }
+
+    // Действующие задержки всех действий с таймаутами и ход их сценариев
+    public Map<String, EffectiveTimeout> status() {
+        return call(this::effective);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        Iterator<Run> iterator = runs.values().iterator();
+        while (iterator.hasNext()) {
+            Run run = iterator.next();
+            if (!apply(run, now)) {
+                iterator.remove();
+                log.info("Latency scenario for '{}' finished", run.action);
+            }
+        }
+        if (runs.isEmpty()) {
+            tickTask.cancel(false);
+            tickTask = null;
+        }
+    }
+
+    // Устанавливает значение сценария на момент now; false — сценарий закончился
+    private boolean apply(Run run, long now) {
+        LatencyDistribution current = run.advance(now);
+        if (!run.finished) {
+            timeoutService.setDistribution(run.action, current);
+            return true;
+        }
+        timeoutService.setDistribution(run.action, run.scenario.restore() ? run.original : current);
+        return false;
+    }
+
+    private Map<String, EffectiveTimeout> effective() {
+        Map<String, EffectiveTimeout> result = new TreeMap<>();
+        timeoutService.getDistributions().forEach((action, distribution) ->
+                result.put(action, new EffectiveTimeout(distribution.nominalMillis(), distribution, null)));
+        runs.values().forEach(run -> {
+            LatencyDistribution distribution = timeoutService.getDistribution(run.action);
+            result.put(run.action, new EffectiveTimeout(distribution.nominalMillis(), distribution, run.progress()));
+        });
+        return result;
+    }
+
+    private <T> T call(Callable<T> task) {
+        try {
+            return ticker.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the scenario scheduler", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Идущий сценарий. Границы участков и значения на их стыках вычисляются при запуске,
+     * текущий участок ищется от предыдущего, поэтому тик не перебирает весь сценарий.
+     */
+    private static final class Run {
+
+        final String action;
+        final LatencyScenario scenario;
+        // Распределение до запуска (null — задержка по умолчанию); его форма сохраняется при масштабировании
+        final LatencyDistribution original;
+        final LatencyDistribution shape;
+        final long startNanos;
+        final double[] ends;
+        final double[] startValues;
+        final double totalMs;
+        int segment;
+        double elapsedMs;
+        boolean finished;
+
+        Run(String action, LatencyScenario scenario, LatencyDistribution original, LatencyDistribution shape,
+            long startNanos) {
+            this.action = action;
+            this.scenario = scenario;
+            this.original = original;
+            this.shape = shape;
+            this.startNanos = startNanos;
+            List<LatencyScenario.Segment> segments = scenario.segments();
+            this.ends = new double[segments.size()];
+            this.startValues = new double[segments.size()];
+            double end = 0;
+            double value = shape.nominalMillis();
+            for (int i = 0; i < segments.size(); i++) {
+                LatencyScenario.Segment segment = segments.get(i);
+                startValues[i] = value;
+                value = segment.valueAt(segment.durationMs(), value);
+                end += segment.durationMs();
+                ends[i] = end;
+            }
+            this.totalMs = end;
+        }
+
+        // Переходит к моменту now и возвращает распределение с текущим значением сценария
+        LatencyDistribution advance(long now) {
+            double elapsed = (now - startNanos) / 1e6;
+            finished = !scenario.loop() && elapsed >= totalMs;
+            elapsedMs = finished ? totalMs : scenario.loop() ? elapsed % totalMs : elapsed;
+            if (segment > 0 && elapsedMs < ends[segment - 1]) {
+                // Новый круг сценария
+                segment = 0;
+            }
+            while (segment < ends.length - 1 && elapsedMs >= ends[segment]) {
+                segment++;
+            }
+            double segmentStart = segment > 0 ? ends[segment - 1] : 0;
+            return scaledTo(scenario.segments().get(segment).valueAt(elapsedMs - segmentStart, startValues[segment]));
+        }
+
+        // Исходное распределение с номинальным значением valueMs
+        LatencyDistribution scaledTo(double valueMs) {
+            double nominal = shape.nominalMillis();
+            if (valueMs <= 0 || nominal <= 0) {
+                return new LatencyDistribution.Fixed(Math.max(valueMs, 0));
+            }
+            return shape.scaled(valueMs / nominal);
+        }
+
+        Progress progress() {
+            String type = scenario.segments().get(segment).getClass().getSimpleName().toLowerCase();
+            return new Progress(elapsedMs, totalMs, segment, type, scenario.loop());
+        }
+    }
+}
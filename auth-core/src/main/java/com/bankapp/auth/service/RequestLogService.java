@@ -0,0 +1,330 @@
+package com.bankapp.auth.service;
+
+import com.bankapp.auth.service.CustomMetricsService.Action;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Журнал запросов эндпоинтов аутентификации (логгер auth.requests) без ввода-вывода на пути запроса.
+ * Поток запроса только проверяет лимит строк своего эндпоинта и кладет запись в ограниченную очередь;
+ * форматирует и пишет в logback отдельный поток пачками. Сверх лимита строки отбрасываются (drop)
+ * или сохраняется каждая N-я с полем sample=N (sample); при переполнении очереди строка отбрасывается.
+ * Отброшенные строки считает метрика auth_request_log_dropped_total{action, reason}.
+ */
+@Service
+public class RequestLogService {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestLogService.class);
+    // Отдельное имя логгера: уровень и appender журнала запросов настраиваются независимо от остальных логов
+    private static final Logger requests = LoggerFactory.getLogger("auth.requests");
+    private static final int BATCH_SIZE = 256;
+    // Строки обработчиков ошибок, для которых эндпоинт неизвестен, идут в отдельную группу other
+    private static final int OTHER = Action.values().length;
+
+    // Что делать со строками сверх лимита эндпоинта
+    public enum Overflow {
+        DROP, SAMPLE
+    }
+
+    // Формат строки: text — key=value через пробел, json — объект в одну строку
+    public enum Format {
+        TEXT, JSON
+    }
+
+    // Причина потери строки (значение тега reason)
+    private enum Reason {
+        RATE_LIMITED, QUEUE_FULL;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // Запись в очереди: время берется в потоке запроса, форматирование — в потоке записи
+    private record Entry(long timeMillis, int group, boolean warn, String event, String key, String value, int sample) {
+    }
+
+    private final boolean enabled;
+    private final Overflow overflow;
+    private final int sampleEvery;
+    private final Format format;
+    private final long emissionNanos; // Интервал между строками одного эндпоинта, 0 — без ограничения
+    private final long toleranceNanos;
+    private final AtomicLong[] theoreticalArrival = new AtomicLong[OTHER + 1];
+    private final AtomicLong[] excess = new AtomicLong[OTHER + 1]; // Строки сверх лимита, для выбора каждой N-й
+    private final LongAdder[][] dropped = new LongAdder[OTHER + 1][Reason.values().length];
+    private final LongAdder[] written = new LongAdder[OTHER + 1];
+    private final BlockingQueue<Entry> queue; // null — запись синхронно в потоке запроса
+    private final Thread writer;
+    private final StringBuilder line = new StringBuilder(256); // Используется только потоком, который пишет строку
+    private volatile boolean closed;
+
+    public RequestLogService(MeterRegistry meterRegistry,
+                             @Value("${auth.request-log.enabled:true}") boolean enabled,
+                             @Value("${auth.request-log.queue-size:8192}") int queueSize,
+                             @Value("${auth.request-log.rate:100}") int rate,
+                             @Value("${auth.request-log.overflow:drop}") String overflow,
+                             @Value("${auth.request-log.sample-every:100}") int sampleEvery,
+                             @Value("${auth.request-log.format:text}") String format) {
+        if (queueSize < 0 || rate < 0 || sampleEvery < 1) {
+            throw new IllegalArgumentException("auth.request-log.queue-size and rate must be >= 0, sample-every >= 1");
+        }
+        this.enabled = enabled;
+        this.overflow = parse(Overflow.class, "auth.request-log.overflow", overflow);
+        this.sampleEvery = sampleEvery;
+        this.format = parse(Format.class, "auth.request-log.format", format);
+        // Лимит — rate строк в секунду с запасом на секунду всплеска
+        this.emissionNanos = rate > 0 ? 1_000_000_000L / rate : 0;
+        this.toleranceNanos = emissionNanos * rate;
+
+        long now = System.nanoTime();
+        for (int group = 0; group <= OTHER; group++) {
+            theoreticalArrival[group] = new AtomicLong(now);
+            excess[group] = new AtomicLong();
+            written[group] = new LongAdder();
+            String tag = group == OTHER ? "other" : Action.values()[group].tag();
+            for (Reason reason : Reason.values()) {
+                LongAdder counter = new LongAdder();
+                dropped[group][reason.ordinal()] = counter;
+                FunctionCounter.builder("auth_request_log_dropped_total", counter, LongAdder::sum)
+                        .description("Request log lines dropped by the per-endpoint rate limit or a full queue")
+                        .tags("action", tag, "reason", reason.tag())
+                        .register(meterRegistry);
+            }
+            FunctionCounter.builder("auth_request_log_lines_total", written[group], LongAdder::sum)
+                    .description("Request log lines written")
+                    .tags("action", tag)
+                    .register(meterRegistry);
+        }
+
+        if (enabled && queueSize > 0) {
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+            Gauge.builder("auth_request_log_queue_size", queue, BlockingQueue::size)
+                    .description("Request log lines waiting to be written")
+                    .register(meterRegistry);
+            this.writer = new Thread(this::writeLoop, "auth-request-log");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        } else {
+            this.queue = null;
+            this.writer = null;
+        }
+        log.info("Request log {}: queue {}, {} lines/s per endpoint, overflow {}, format {}",
+                enabled ? "enabled" : "disabled", queueSize > 0 ? queueSize : "off (synchronous)",
+                rate > 0 ? rate : "unlimited", this.overflow, this.format);
+    }
+
+    // Событие эндпоинта без полей, например logout
+    public void info(Action action, String event) {
+        submit(action.ordinal(), false, event, null, null);
+    }
+
+    // Событие эндпоинта с одним полем, например login_attempt username=user1
+    public void info(Action action, String event, String key, String value) {
+        submit(action.ordinal(), false, event, key, value);
+    }
+
+    // Предупреждение, для которого эндпоинт неизвестен (обработчики исключений)
+    public void warn(String event, String key, String value) {
+        submit(OTHER, true, event, key, value);
+    }
+
+    private void submit(int group, boolean warn, String event, String key, String value) {
+        if (!enabled || !(warn ? requests.isWarnEnabled() : requests.isInfoEnabled())) {
+            return;
+        }
+        int sample = 1;
+        if (!tryAcquire(group, System.nanoTime())) {
+            // Сверх лимита: в режиме sample каждая N-я строка проходит и представляет N строк
+            if (overflow == Overflow.DROP || excess[group].incrementAndGet() % sampleEvery != 0) {
+                dropped[group][Reason.RATE_LIMITED.ordinal()].increment();
+                return;
+            }
+            sample = sampleEvery;
+        }
+        Entry entry = new Entry(System.currentTimeMillis(), group, warn, event, key, value, sample);
+        if (queue == null) {
+            synchronized (line) {
+                write(entry);
+            }
+        } else if (closed || !queue.offer(entry)) {
+            dropped[group][Reason.QUEUE_FULL.ordinal()].increment();
+        }
+    }
+
+    // Лимит строк эндпоинта — GCRA на одном AtomicLong, как в CapacityLimiter
+    private boolean tryAcquire(int group, long now) {
+        if (emissionNanos == 0) {
+            return true;
+        }
+        AtomicLong arrival = theoreticalArrival[group];
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + emissionNanos;
+            if (next - now > toleranceNanos) {
+                return false;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        while (!closed) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                writeAll(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeAll(List<Entry> batch) {
+        synchronized (line) {
+            for (Entry entry : batch) {
+                try {
+                    write(entry);
+                } catch (RuntimeException e) {
+                    log.warn("Request log line failed: {}", e.toString());
+                }
+            }
+        }
+    }
+
+    private void write(Entry entry) {
+        line.setLength(0);
+        String action = entry.group() == OTHER ? "other" : Action.values()[entry.group()].tag();
+        if (format == Format.JSON) {
+            line.append("{\"time\":\"").append(Instant.ofEpochMilli(entry.timeMillis())).append('"');
+            appendJson("action", action);
+            appendJson("event", entry.event());
+            if (entry.key() != null) {
+                appendJson(entry.key(), entry.value());
+            }
+            if (entry.sample() > 1) {
+                line.append(",\"sample\":").append(entry.sample());
+            }
+            line.append('}');
+        } else {
+            line.append("time=").append(Instant.ofEpochMilli(entry.timeMillis()));
+            appendText("action", action);
+            appendText("event", entry.event());
+            if (entry.key() != null) {
+                appendText(entry.key(), entry.value());
+            }
+            if (entry.sample() > 1) {
+                line.append(" sample=").append(entry.sample());
+            }
+        }
+        String text = line.toString();
+        if (entry.warn()) {
+            requests.warn(text);
+        } else {
+            requests.info(text);
+        }
+        written[entry.group()].increment();
+    }
+
+    private void appendJson(String key, String value) {
+        line.append(",\"").append(key).append("\":");
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+
+    // Значения с пробелами, кавычками или переводами строк берутся в кавычки, чтобы строка оставалась одной записью
+    private void appendText(String key, String value) {
+        line.append(' ').append(key).append('=');
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        boolean quote = value.isEmpty();
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c <= ' ' || c == '"' || c == '=';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c == '\n') {
+                line.append("\\n");
+            } else if (c == '\r') {
+                line.append("\\r");
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+    // Дописывает строки, оставшиеся в очереди, перед остановкой
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        closed = true;
+        writer.interrupt();
+        writer.join(1_000);
+        List<Entry> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        writeAll(rest);
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String property, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(property + " has unsupported value: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.bankapp.auth.service;
+
+import com.bankapp.auth.model.LatencyDistribution;
+import com.bankapp.auth.util.DelayScheduler;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Распределения искусственных задержек по действиям (логин, регистрация, выход и др.).
+ * Задержка выбирается одним поиском в карте и выборкой из распределения без аллокаций.
+ */
+@Service
+public class TimeoutService {
+
+    // Задержка по умолчанию для действий, которым таймаут не задан, — 10 секунд
+    private static final LatencyDistribution DEFAULT_TIMEOUT = new LatencyDistribution.Fixed(10_000);
+
+    // Ключ — действие (например, "login"), значение — распределение задержки
+    private final Map<String, LatencyDistribution> timeouts = new ConcurrentHashMap<>();
+
+    // Движок, который выполняет задержку в выбранном режиме (auth.delay.mode)
+    private final DelayScheduler delayScheduler;
+
+    public TimeoutService(DelayScheduler delayScheduler) {
+        this.delayScheduler = delayScheduler;
+        // Стандартные таймауты: вход — 1 секунда, регистрация и выход — 2 секунды
+        timeouts.put("login", new LatencyDistribution.Fixed(1_000));
+        timeouts.put("register", new LatencyDistribution.Fixed(2_000));
+        timeouts.put("logout", new LatencyDistribution.Fixed(2_000));
+    }
+
+    // Спит в текущем потоке очередное значение задержки действия
+    public void applyTimeout(String action) {
+        DelayScheduler.sleepNanos(sampleNanos(action));
+    }
+
+    /**
+     * Неблокирующий вариант applyTimeout: возвращает future, который завершится после задержки.
+     * В режиме auth.delay.mode=async поток не занимается на время ожидания.
+     */
+    public CompletableFuture<Void> scheduleTimeout(String action) {
+        return delayScheduler.delay(sampleNanos(action));
+    }
+
+    // Очередное значение задержки для действия в наносекундах
+    public long sampleNanos(String action) {
+        return timeouts.getOrDefault(action, DEFAULT_TIMEOUT).sampleNanos();
+    }
+
+    // Распределение, заданное действию, или null, если действует задержка по умолчанию
+    public LatencyDistribution findDistribution(String action) {
+        return timeouts.get(action);
+    }
+
+    // Распределение, по которому сейчас выбирается задержка действия
+    public LatencyDistribution getDistribution(String action) {
+        return timeouts.getOrDefault(action, DEFAULT_TIMEOUT);
+    }
+
+    // Заменяет распределение действия (null — вернуть задержку по умолчанию)
+    public void setDistribution(String action, LatencyDistribution distribution) {
+        if (distribution != null) {
+            timeouts.put(action, distribution);
+        } else {
+            timeouts.remove(action);
+        }
+    }
+
+    // null в значении, как и в setDistribution, снимает задержку действия
+    public void setDistributions(Map<String, LatencyDistribution> distributions) {
+        distributions.forEach(this::setDistribution);
+    }
+
+    // Упорядоченная копия всех заданных распределений
+    public Map<String, LatencyDistribution> getDistributions() {
+        return new TreeMap<>(timeouts);
+    }
+}
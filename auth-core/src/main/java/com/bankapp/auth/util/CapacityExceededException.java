@@ -0,0 +1,25 @@
+package com.bankapp.auth.util;
+
+// Исключение: запрос отклонен ограничителем пропускной способности действия
+public class CapacityExceededException extends RuntimeException {
+
+    // Причина отказа: превышена частота (429) или нет места в очереди / истекло ожидание (503)
+    public enum Reason { RATE, QUEUE_FULL, QUEUE_TIMEOUT }
+
+    private final String action; // Действие, для которого сработал ограничитель
+    private final Reason reason;
+
+    public CapacityExceededException(String action, Reason reason) {
+        super("Capacity exceeded for '" + action + "': " + reason, null, false, false);
+        this.action = action;
+        this.reason = reason;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
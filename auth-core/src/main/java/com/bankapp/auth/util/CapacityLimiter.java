@@ -0,0 +1,145 @@
+package com.bankapp.auth.util;
+
+import com.bankapp.auth.model.CapacityLimits;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограничитель одного действия без блокировок.
+ * Частота — GCRA (вариант token bucket на одном AtomicLong): хранится теоретическое время прибытия
+ * следующего запроса, запрос принимается, если оно опережает текущее не больше чем на burst интервалов.
+ * Параллельность — счетчик занятых мест и очередь ожидающих future ограниченного размера:
+ * освобождающий место сразу передает его первому ожидающему.
+ */
+public final class CapacityLimiter {
+
+    private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+
+    private final String action;
+    private final CapacityLimits limits;
+    private final long emissionNanos; // Интервал между запросами при заданной частоте, 0 — без ограничения
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ConcurrentLinkedQueue<CompletableFuture<Boolean>> waiters = new ConcurrentLinkedQueue<>();
+
+    public CapacityLimiter(String action, CapacityLimits limits) {
+        this.action = action;
+        this.limits = limits;
+        this.emissionNanos = limits.ratePerSecond() > 0 ? (long) (1e9 / limits.ratePerSecond()) : 0;
+        this.toleranceNanos = emissionNanos * limits.burst();
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    public CapacityLimits getLimits() {
+        return limits;
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * Занимает место для запроса. Возвращает завершенный future, если место есть сразу,
+     * future ожидания, если запрос встал в очередь, и future с CapacityExceededException при отказе.
+     * После завершения запроса, получившего место, нужно вызвать release.
+     */
+    public CompletableFuture<Void> acquire() {
+        if (!tryAcquireRate(System.nanoTime())) {
+            return CompletableFuture.failedFuture(new CapacityExceededException(action, CapacityExceededException.Reason.RATE));
+        }
+        int max = limits.maxConcurrency();
+        if (max == 0) {
+            return GRANTED;
+        }
+        for (int current = active.get(); current < max; current = active.get()) {
+            if (active.compareAndSet(current, current + 1)) {
+                return GRANTED;
+            }
+        }
+        if (queued.incrementAndGet() > limits.maxQueue()) {
+            queued.decrementAndGet();
+            return CompletableFuture.failedFuture(
+                    new CapacityExceededException(action, CapacityExceededException.Reason.QUEUE_FULL));
+        }
+        // true — место выдано, false — истекло время ожидания
+        CompletableFuture<Boolean> waiter = new CompletableFuture<>();
+        waiters.add(waiter);
+        if (limits.queueTimeoutMs() > 0) {
+            waiter.completeOnTimeout(false, limits.queueTimeoutMs(), TimeUnit.MILLISECONDS);
+        }
+        // Место могло освободиться, пока запрос вставал в очередь
+        handOver();
+        return waiter.thenApply(granted -> {
+            if (!granted) {
+                // Убираем себя из очереди, если передача места еще не забрала этот future
+                if (waiters.remove(waiter)) {
+                    queued.decrementAndGet();
+                }
+                throw new CapacityExceededException(action, CapacityExceededException.Reason.QUEUE_TIMEOUT);
+            }
+            return null;
+        });
+    }
+
+    // Освобождает место и передает его первому ожидающему
+    public void release() {
+        if (limits.maxConcurrency() == 0) {
+            return;
+        }
+        active.decrementAndGet();
+        handOver();
+    }
+
+    // Принимает запрос по частоте: сдвигает теоретическое время прибытия на один интервал
+    private boolean tryAcquireRate(long now) {
+        if (emissionNanos == 0) {
+            return true;
+        }
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, now) + emissionNanos;
+            if (next - now > toleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return true;
+            }
+        }
+    }
+
+    // Пока есть ожидающие и свободные места — занимаем место и отдаем его ожидающему
+    private void handOver() {
+        int max = limits.maxConcurrency();
+        while (!waiters.isEmpty()) {
+            int current = active.get();
+            if (current >= max) {
+                return;
+            }
+            if (!active.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            CompletableFuture<Boolean> waiter = waiters.poll();
+            if (waiter == null) {
+                // Очередь опустела между проверкой и poll — возвращаем место
+                active.decrementAndGet();
+                continue;
+            }
+            queued.decrementAndGet();
+            if (!waiter.complete(true)) {
+                // Ожидание уже истекло — место достается следующему
+                active.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.bankapp.auth.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Генератор без общих блокировок на пути запроса.
+ * Идентификаторы — строки в формате UUID из двух long без SecureRandom и промежуточных объектов:
+ * RANDOM — случайные биты генератора текущего потока (UUID v4), TIME — миллисекунды создания и случайные биты
+ * (UUID v7, сортируются по времени), SEQUENTIAL — время запуска процесса и счетчик, который потоки берут блоками.
+ * Номера счетов и карт хранятся как long в полосатом множестве: повтор (или номер восстановленного счета)
+ * отбрасывается и берется следующий.
+ */
+public final class DefaultIdGenerator extends IdGenerator {
+
+    public static final String DEFAULT_CARD_PREFIX = "220000";
+
+    public enum Strategy {
+        RANDOM, TIME, SEQUENTIAL
+    }
+
+    private static final long ACCOUNT_MIN = 100_000_000_000L; // 12 цифр без ведущего нуля
+    private static final long ACCOUNT_MAX = 1_000_000_000_000L;
+    private static final long CARD_BODY_RANGE = 1_000_000_000L; // 9 цифр между префиксом и контрольной цифрой
+    private static final int BLOCK_SIZE = 1024;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Strategy strategy;
+    private final String cardPrefix;
+    private final long cardPrefixValue;
+    private final long startMillis = System.currentTimeMillis();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong accountSequence = new AtomicLong();
+    private final AtomicLong cardSequence = new AtomicLong();
+    private final ThreadLocal<long[]> idBlock = ThreadLocal.withInitial(() -> new long[2]);
+    private final NumberSet accountNumbers;
+    private final NumberSet cardNumbers;
+    private final LongAdder accountCollisions = new LongAdder();
+    private final LongAdder cardCollisions = new LongAdder();
+
+    public DefaultIdGenerator(Strategy strategy, String cardPrefix) {
+        this(strategy, cardPrefix, null);
+    }
+
+    /**
+     * Генератор, который продолжает учет номеров previous: номера, выданные или восстановленные
+     * до замены генератора (например, при загрузке сохраненных клиентов), не выдаются повторно.
+     */
+    public DefaultIdGenerator(Strategy strategy, String cardPrefix, DefaultIdGenerator previous) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("strategy must not be null");
+        }
+        if (cardPrefix == null || cardPrefix.length() != 6 || !cardPrefix.chars().allMatch(Character::isDigit)
+                || cardPrefix.charAt(0) == '0') {
+            throw new IllegalArgumentException("card prefix must be 6 digits not starting with 0: " + cardPrefix);
+        }
+        this.strategy = strategy;
+        this.cardPrefix = cardPrefix;
+        this.cardPrefixValue = Long.parseLong(cardPrefix);
+        this.accountNumbers = previous != null ? previous.accountNumbers : new NumberSet();
+        this.cardNumbers = previous != null ? previous.cardNumbers : new NumberSet();
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public String getCardPrefix() {
+        return cardPrefix;
+    }
+
+    @Override
+    public String nextId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high;
+        long low;
+        switch (strategy) {
+            case TIME -> {
+                high = System.currentTimeMillis() << 16 | 0x7000L | random.nextInt(1 << 12);
+                low = random.nextLong() & 0x3FFF_FFFF_FFFF_FFFFL | 0x8000_0000_0000_0000L;
+            }
+            case SEQUENTIAL -> {
+                high = startMillis;
+                low = nextSequence();
+            }
+            default -> {
+                high = random.nextLong() & ~0xF000L | 0x4000L;
+                low = random.nextLong() & 0x3FFF_FFFF_FFFF_FFFFL | 0x8000_0000_0000_0000L;
+            }
+        }
+        return formatUuid(high, low);
+    }
+
+    @Override
+    public String nextAccountNumber() {
+        while (true) {
+            long number = strategy == Strategy.SEQUENTIAL
+                    ? ACCOUNT_MIN + accountSequence.getAndIncrement() % (ACCOUNT_MAX - ACCOUNT_MIN)
+                    : ThreadLocalRandom.current().nextLong(ACCOUNT_MIN, ACCOUNT_MAX);
+            if (accountNumbers.add(number)) {
+                return Long.toString(number);
+            }
+            accountCollisions.increment();
+        }
+    }
+
+    @Override
+    public String nextCardNumber() {
+        while (true) {
+            long body = strategy == Strategy.SEQUENTIAL
+                    ? cardSequence.getAndIncrement() % CARD_BODY_RANGE
+                    : ThreadLocalRandom.current().nextLong(CARD_BODY_RANGE);
+            // Без контрольной цифры: 6 цифр префикса и 9 цифр тела однозначно задают номер
+            if (cardNumbers.add(cardPrefixValue * CARD_BODY_RANGE + body)) {
+                return formatCard(body);
+            }
+            cardCollisions.increment();
+        }
+    }
+
+    @Override
+    public boolean reserve(String accountNumber, String cardNumber) {
+        boolean free = true;
+        long account = parseDigits(accountNumber, 12);
+        if (account > 0) {
+            free = accountNumbers.add(account);
+        }
+        long card = parseDigits(cardNumber, 16);
+        if (card > 0) {
+            free &= cardNumbers.add(card / 10);
+        }
+        return free;
+    }
+
+    // Сколько раз номер счета или карты совпал с уже выданным
+    public long getAccountCollisions() {
+        return accountCollisions.sum();
+    }
+
+    public long getCardCollisions() {
+        return cardCollisions.sum();
+    }
+
+    // Выданные и восстановленные номера
+    public int getIssuedAccountNumbers() {
+        return accountNumbers.size();
+    }
+
+    public int getIssuedCardNumbers() {
+        return cardNumbers.size();
+    }
+
+    // Следующее значение из блока потока; за новым блоком поток обращается к общему счетчику раз в BLOCK_SIZE вызовов
+    private long nextSequence() {
+        long[] block = idBlock.get();
+        if (block[0] == block[1]) {
+            block[0] = sequence.getAndAdd(BLOCK_SIZE);
+            block[1] = block[0] + BLOCK_SIZE;
+        }
+        return block[0]++;
+    }
+
+    private String formatCard(long body) {
+        char[] digits = new char[16];
+        cardPrefix.getChars(0, 6, digits, 0);
+        for (int i = 14; i >= 6; i--) {
+            digits[i] = (char) ('0' + body % 10);
+            body /= 10;
+        }
+        digits[15] = (char) ('0' + luhnCheckDigit(digits, 15));
+        return new String(digits);
+    }
+
+    private static String formatUuid(long high, long low) {
+        char[] chars = new char[36];
+        putHex(chars, 0, high >>> 32, 8);
+        chars[8] = '-';
+        putHex(chars, 9, high >>> 16, 4);
+        chars[13] = '-';
+        putHex(chars, 14, high, 4);
+        chars[18] = '-';
+        putHex(chars, 19, low >>> 48, 4);
+        chars[23] = '-';
+        putHex(chars, 24, low, 12);
+        return new String(chars);
+    }
+
+    private static void putHex(char[] chars, int offset, long value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            chars[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    // Номер из length цифр или -1 (у счетов, созданных до генератора, номера шестнадцатеричные)
+    private static long parseDigits(String value, int length) {
+        if (value == null || value.length() != length) {
+            return -1;
+        }
+        long result = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    /**
+     * Множество положительных long: 64 полосы с открытой адресацией, у каждой своя блокировка,
+     * поэтому потоки почти не ждут друг друга, а номера хранятся без упаковки в Long.
+     */
+    private static final class NumberSet {
+
+        private static final int STRIPES = 64;
+
+        private final Stripe[] stripes = new Stripe[STRIPES];
+
+        NumberSet() {
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new Stripe();
+            }
+        }
+
+        boolean add(long value) {
+            long hash = mix(value);
+            return stripes[(int) (hash >>> 58)].add(value, hash);
+        }
+
+        int size() {
+            int size = 0;
+            for (Stripe stripe : stripes) {
+                size += stripe.size();
+            }
+            return size;
+        }
+
+        private static long mix(long value) {
+            value ^= value >>> 33;
+            value *= 0xff51afd7ed558ccdL;
+            value ^= value >>> 33;
+            value *= 0xc4ceb9fe1a85ec53L;
+            return value ^ value >>> 33;
+        }
+
+        // Полоса: 0 — пустая ячейка, заполнение не выше половины
+        private static final class Stripe {
+
+            private long[] table = new long[64];
+            private int size;
+
+            synchronized boolean add(long value, long hash) {
+                if (insert(table, value, hash)) {
+                    if (++size * 2 > table.length) {
+                        resize();
+                    }
+                    return true;
+                }
+                return false;
+            }
+
+            synchronized int size() {
+                return size;
+            }
+
+            private void resize() {
+                long[] grown = new long[table.length * 2];
+                for (long value : table) {
+                    if (value != 0) {
+                        insert(grown, value, mix(value));
+                    }
+                }
+                table = grown;
+            }
+
+            private static boolean insert(long[] table, long value, long hash) {
+                int mask = table.length - 1;
+                for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+                    if (table[i] == 0) {
+                        table[i] = value;
+                        return true;
+                    }
+                    if (table[i] == value) {
+                        return false;
+                    }
+                }
+            }
+        }
+    }
+}
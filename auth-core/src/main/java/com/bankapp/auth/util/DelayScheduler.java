@@ -0,0 +1,113 @@
+package com.bankapp.auth.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Движок искусственных задержек ответа (задержки задаются в наносекундах).
+ * В режиме {@code blocking} задержка выполняется в потоке запроса (как раньше, через сон потока),
+ * в режиме {@code async} ответ завершается по таймеру колеса, и поток Tomcat сразу освобождается;
+ * точность async-режима равна тику колеса (auth.delay.tick-micros).
+ */
+@Component
+public class DelayScheduler {
+
+    public enum Mode { BLOCKING, ASYNC }
+
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+
+    private final Mode mode;
+    private final HashedWheelTimer timer;
+    private final ExecutorService completionExecutor; // Потоки, в которых продолжается обработка после задержки
+    private final AtomicInteger pending = new AtomicInteger(); // Ответы, ожидающие окончания задержки
+
+    public DelayScheduler(@Value("${auth.delay.mode:blocking}") String mode,
+                          @Value("${auth.delay.tick-micros:1000}") long tickMicros,
+                          @Value("${auth.delay.wheel-size:4096}") int wheelSize,
+                          @Value("${auth.delay.completion-threads:0}") int completionThreads,
+                          MeterRegistry meterRegistry) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase());
+        if (this.mode == Mode.ASYNC) {
+            int threads = completionThreads > 0 ? completionThreads : Runtime.getRuntime().availableProcessors();
+            this.timer = new HashedWheelTimer("auth-delay-wheel", tickMicros, TimeUnit.MICROSECONDS, wheelSize);
+            this.completionExecutor = Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r, "auth-delay-completion");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.timer = null;
+            this.completionExecutor = null;
+        }
+        Gauge.builder("auth_delay_pending", pending, AtomicInteger::get)
+                .description("Number of responses waiting for their artificial delay to elapse")
+                .tags("mode", this.mode.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    // Текущее количество ответов, ожидающих окончания задержки
+    public int getPending() {
+        return pending.get();
+    }
+
+    /**
+     * Возвращает future, который завершится после указанной задержки.
+     * В блокирующем режиме поток спит здесь же и получает уже завершенный future.
+     */
+    public CompletableFuture<Void> delay(long delayNanos) {
+        if (delayNanos <= 0) {
+            return DONE;
+        }
+        if (mode == Mode.BLOCKING) {
+            pending.incrementAndGet();
+            try {
+                sleepNanos(delayNanos);
+            } finally {
+                pending.decrementAndGet();
+            }
+            return DONE;
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        pending.incrementAndGet();
+        timer.schedule(() -> completionExecutor.execute(() -> {
+            pending.decrementAndGet();
+            future.complete(null);
+        }), delayNanos, TimeUnit.NANOSECONDS);
+        return future;
+    }
+
+    /**
+     * Сон потока с точностью до наносекунд (Thread.sleep округляет до миллисекунд).
+     * При прерывании выходит раньше, статус прерывания сохраняется.
+     */
+    public static void sleepNanos(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        long remaining = nanos;
+        while (remaining > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (timer != null) {
+            timer.close();
+            completionExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.bankapp.auth.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Хешированное колесо таймеров: один поток обслуживает любое количество отложенных задач.
+ * Постановка задачи — O(1) и без блокировок (задача кладется во входящую очередь),
+ * раскладкой по корзинам колеса и запуском задач занимается только рабочий поток.
+ * Точность срабатывания ограничена длительностью одного тика.
+ */
+public class HashedWheelTimer implements AutoCloseable {
+
+    private final long tickNanos; // Длительность одного тика в наносекундах
+    private final Bucket[] wheel; // Корзины колеса (размер — степень двойки)
+    private final int mask; // Маска для вычисления индекса корзины
+    private final Queue<Timeout> inbox = new ConcurrentLinkedQueue<>(); // Новые задачи от любых потоков
+    private final AtomicInteger pending = new AtomicInteger(); // Количество задач, ожидающих срабатывания
+    private final long startTime; // Точка отсчета тиков
+    private final Thread worker; // Рабочий поток колеса
+    private volatile boolean running = true;
+
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be positive: " + tickDuration);
+        }
+        if (wheelSize <= 0) {
+            throw new IllegalArgumentException("wheelSize must be positive: " + wheelSize);
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startTime = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Планирует выполнение задачи через указанную задержку.
+     * Задача выполняется в потоке колеса, поэтому должна быть короткой.
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timer is stopped");
+        }
+        Timeout timeout = new Timeout(task, System.nanoTime() + unit.toNanos(Math.max(0, delay)));
+        pending.incrementAndGet();
+        inbox.add(timeout);
+        return timeout;
+    }
+
+    // Количество задач, которые еще не сработали и не отменены
+    public int pending() {
+        return pending.get();
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        long tick = 0;
+        while (running) {
+            long deadline = startTime + (tick + 1) * tickNanos;
+            long sleep;
+            while ((sleep = deadline - System.nanoTime()) > 0 && running) {
+                LockSupport.parkNanos(this, sleep);
+            }
+            transferInbox(tick);
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    // Раскладываем новые задачи по корзинам колеса
+    private void transferInbox(long currentTick) {
+        Timeout timeout;
+        while ((timeout = inbox.poll()) != null) {
+            if (timeout.state.get() != Timeout.ACTIVE) {
+                continue;
+            }
+            long ticks = Math.max(currentTick, (timeout.deadline - startTime) / tickNanos);
+            timeout.remainingRounds = (ticks - currentTick) / wheel.length;
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    // Запускаем задачи корзины, у которых закончились обороты колеса
+    private void expire(Bucket bucket) {
+        Timeout timeout = bucket.head;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.state.get() != Timeout.ACTIVE) {
+                bucket.remove(timeout);
+            } else if (timeout.remainingRounds <= 0) {
+                bucket.remove(timeout);
+                if (timeout.state.compareAndSet(Timeout.ACTIVE, Timeout.EXPIRED)) {
+                    pending.decrementAndGet();
+                    try {
+                        timeout.task.run();
+                    } catch (Throwable ignored) {
+                        // Ошибка одной задачи не должна останавливать колесо
+                    }
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * Дескриптор запланированной задачи, позволяет отменить ее до срабатывания.
+     */
+    public final class Timeout {
+        private static final int ACTIVE = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(ACTIVE);
+        // Поля ниже изменяет только рабочий поток колеса
+        private long remainingRounds;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        // Отменяет задачу; возвращает false, если она уже сработала или была отменена
+        public boolean cancel() {
+            if (state.compareAndSet(ACTIVE, CANCELLED)) {
+                pending.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+    }
+
+    // Двусвязный список задач одной корзины, доступен только рабочему потоку
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+        }
+    }
+}
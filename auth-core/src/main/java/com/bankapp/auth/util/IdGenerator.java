@@ -0,0 +1,77 @@
+package com.bankapp.auth.util;
+
+/**
+ * Источник идентификаторов клиентов и счетов, номеров счетов и карт.
+ * Client и Account создаются через new, поэтому генератор общий для процесса: по умолчанию —
+ * DefaultIdGenerator со случайной стратегией, при старте его заменяет IdGenerationService (auth.ids.*).
+ * Приложение может установить свою реализацию через install.
+ */
+public abstract class IdGenerator {
+
+    private static volatile IdGenerator current = new DefaultIdGenerator(DefaultIdGenerator.Strategy.RANDOM,
+            DefaultIdGenerator.DEFAULT_CARD_PREFIX);
+
+    // Генератор, которым пользуются конструкторы Client и Account
+    public static IdGenerator current() {
+        return current;
+    }
+
+    public static void install(IdGenerator generator) {
+        if (generator == null) {
+            throw new IllegalArgumentException("generator must not be null");
+        }
+        current = generator;
+    }
+
+    // Идентификатор клиента или счета
+    public abstract String nextId();
+
+    // Номер счета: 12 цифр, не повторяется
+    public abstract String nextAccountNumber();
+
+    // Номер карты: 16 цифр с контрольной цифрой по алгоритму Луна, не повторяется
+    public abstract String nextCardNumber();
+
+    /**
+     * Номера восстановленного счета, которые нельзя выдавать повторно (по умолчанию ничего не делает).
+     * false — хотя бы один из номеров уже был выдан или зарезервирован раньше.
+     */
+    public boolean reserve(String accountNumber, String cardNumber) {
+        return true;
+    }
+
+    /**
+     * Контрольная цифра Луна для первых length цифр: удваивается каждая вторая цифра справа,
+     * начиная с последней, — так, чтобы номер вместе с контрольной цифрой прошел проверку.
+     */
+    public static int luhnCheckDigit(char[] digits, int length) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = length - 1; i >= 0; i--) {
+            int digit = digits[i] - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    // Проверка номера (вместе с контрольной цифрой) по алгоритму Луна
+    public static boolean isLuhnValid(String number) {
+        if (number == null || number.length() < 2) {
+            return false;
+        }
+        char[] digits = number.toCharArray();
+        for (char c : digits) {
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return luhnCheckDigit(digits, digits.length - 1) == digits[digits.length - 1] - '0';
+    }
+}
@@ -0,0 +1,265 @@
+package com.bankapp.auth.util;
+
+import com.bankapp.auth.model.Client;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Таблица сессий, ключ — токен, выданный при входе.
+ * У сессии есть idle TTL (продлевается при каждом обращении) и absolute TTL (от момента входа).
+ * Просроченные сессии удаляет таймер-колесо, при превышении лимита вытесняются самые старые сессии.
+ */
+@Component
+public class SessionManager {
+
+    public static final String TOKEN_HEADER = "X-Auth-Token"; // Заголовок с токеном сессии
+    public static final String TOKEN_COOKIE = "AUTH_TOKEN"; // Cookie с токеном сессии
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    // Сессии в порядке создания (ключ — порядковый номер): первая вытесняется при превышении лимита.
+    // Удаленная сессия сразу убирается и отсюда, поэтому размер не больше числа живых сессий
+    private final ConcurrentSkipListMap<Long, Session> creationOrder = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final HashedWheelTimer sweeper;
+    private final long idleTtlNanos;
+    private final long absoluteTtlNanos;
+    private final int maxSessions;
+
+    private final Counter expiredIdle;
+    private final Counter expiredAbsolute;
+    private final Counter evicted;
+
+    public SessionManager(@Value("${auth.session.idle-ttl:30m}") Duration idleTtl,
+                          @Value("${auth.session.absolute-ttl:8h}") Duration absoluteTtl,
+                          @Value("${auth.session.max-sessions:1000000}") int maxSessions,
+                          @Value("${auth.session.sweep-tick:1s}") Duration sweepTick,
+                          MeterRegistry meterRegistry) {
+        this.idleTtlNanos = idleTtl.toNanos();
+        this.absoluteTtlNanos = absoluteTtl.toNanos();
+        this.maxSessions = maxSessions;
+        if (sweepTick.isNegative() || sweepTick.isZero()) {
+            throw new IllegalArgumentException("auth.session.sweep-tick must be positive: " + sweepTick);
+        }
+        // В наносекундах: тик меньше миллисекунды не округляется до нуля
+        this.sweeper = new HashedWheelTimer("auth-session-sweeper", sweepTick.toNanos(), TimeUnit.NANOSECONDS, 512);
+
+        Gauge.builder("auth_sessions_active", sessions, ConcurrentHashMap::size)
+                .description("Number of active sessions")
+                .register(meterRegistry);
+        this.expiredIdle = Counter.builder("auth_sessions_removed_total")
+                .description("Sessions removed without logout")
+                .tags("reason", "idle")
+                .register(meterRegistry);
+        this.expiredAbsolute = Counter.builder("auth_sessions_removed_total")
+                .description("Sessions removed without logout")
+                .tags("reason", "absolute")
+                .register(meterRegistry);
+        this.evicted = Counter.builder("auth_sessions_removed_total")
+                .description("Sessions removed without logout")
+                .tags("reason", "capacity")
+                .register(meterRegistry);
+    }
+
+    // Создает сессию для клиента и возвращает ее токен
+    public String login(Client client) {
+        String token = newToken();
+        open(token, client);
+        return token;
+    }
+
+    // Создает сессию с известным токеном (например, копию сессии с другого узла кластера); сроки — от текущего момента
+    public void open(String token, Client client) {
+        long now = System.nanoTime();
+        Session session = new Session(token, client, now, sequence.incrementAndGet());
+        creationOrder.put(session.seq, session);
+        Session previous = sessions.put(token, session);
+        if (previous != null) {
+            forget(previous);
+        }
+        scheduleSweep(session, now);
+        enforceCapacity();
+    }
+
+    // Клиент сессии; обращение продлевает idle TTL
+    public Optional<Client> getClient(String token) {
+        Session session = live(token);
+        if (session == null) {
+            return Optional.empty();
+        }
+        session.lastAccess = System.nanoTime();
+        return Optional.of(session.client);
+    }
+
+    public Client getLoggedInClient(String token) {
+        return getClient(token).orElse(null);
+    }
+
+    // Завершает сессию; возвращает false, если токен неизвестен или сессия уже истекла
+    public boolean logout(String token) {
+        if (token == null) {
+            return false;
+        }
+        Session session = sessions.remove(token);
+        if (session == null) {
+            return false;
+        }
+        forget(session);
+        return true;
+    }
+
+    public boolean isLoggedIn(String token) {
+        return getClient(token).isPresent();
+    }
+
+    public String getLoginStatus(String token) {
+        return statusOf(isLoggedIn(token));
+    }
+
+    // Текст статуса для уже известного результата проверки сессии
+    public static String statusOf(boolean loggedIn) {
+        if (loggedIn) {
+            return "аутентифицирован";
+        } else {
+            return "не аутентифицирован";
+        }
+    }
+
+    // Количество активных сессий
+    public int getActiveSessions() {
+        return sessions.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.close();
+    }
+
+    // Сессия по токену, если она не истекла (истекшую удаляем сразу, не дожидаясь колеса)
+    private Session live(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (session.expired(now)) {
+            remove(session, now);
+            return null;
+        }
+        return session;
+    }
+
+    // Планируем проверку сессии на момент ближайшего истечения одного из TTL
+    private void scheduleSweep(Session session, long now) {
+        long delay = Math.max(0, session.nextDeadline() - now);
+        session.sweep = sweeper.schedule(() -> sweep(session), delay, TimeUnit.NANOSECONDS);
+    }
+
+    // Выполняется в потоке колеса: удаляем истекшую сессию или переносим проверку
+    private void sweep(Session session) {
+        if (sessions.get(session.token) != session) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (session.expired(now)) {
+            remove(session, now);
+        } else {
+            // За время ожидания сессией пользовались — idle-срок сдвинулся
+            scheduleSweep(session, now);
+        }
+    }
+
+    private void remove(Session session, long now) {
+        if (sessions.remove(session.token, session)) {
+            forget(session);
+            if (now - session.createdAt >= absoluteTtlNanos) {
+                expiredAbsolute.increment();
+            } else {
+                expiredIdle.increment();
+            }
+        }
+    }
+
+    // Сессия удалена из таблицы: снимаем проверку колеса и убираем из порядка создания
+    private void forget(Session session) {
+        session.cancelSweep();
+        creationOrder.remove(session.seq, session);
+    }
+
+    // Вытесняем самые старые сессии, пока их больше лимита
+    private void enforceCapacity() {
+        while (sessions.size() > maxSessions) {
+            Map.Entry<Long, Session> oldest = creationOrder.pollFirstEntry();
+            if (oldest == null) {
+                return;
+            }
+            Session head = oldest.getValue();
+            if (sessions.remove(head.token, head)) {
+                head.cancelSweep();
+                evicted.increment();
+            }
+        }
+    }
+
+    // Случайный 128-битный токен в hex (без общего SecureRandom, чтобы не было конкуренции потоков)
+    private static String newToken() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] chars = new char[32];
+        long high = random.nextLong();
+        long low = random.nextLong();
+        for (int i = 0; i < 16; i++) {
+            chars[i] = HEX[(int) (high >>> (60 - 4 * i)) & 0xF];
+            chars[16 + i] = HEX[(int) (low >>> (60 - 4 * i)) & 0xF];
+        }
+        return new String(chars);
+    }
+
+    private final class Session {
+        private final String token;
+        private final Client client;
+        private final long createdAt;
+        private final long seq;
+        private volatile long lastAccess;
+        private volatile HashedWheelTimer.Timeout sweep;
+
+        private Session(String token, Client client, long createdAt, long seq) {
+            this.token = token;
+            this.client = client;
+            this.createdAt = createdAt;
+            this.seq = seq;
+            this.lastAccess = createdAt;
+        }
+
+        private long nextDeadline() {
+            return Math.min(createdAt + absoluteTtlNanos, lastAccess + idleTtlNanos);
+        }
+
+        private boolean expired(long now) {
+            return now - nextDeadline() >= 0;
+        }
+
+        private void cancelSweep() {
+            HashedWheelTimer.Timeout timeout = sweep;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+    }
+}
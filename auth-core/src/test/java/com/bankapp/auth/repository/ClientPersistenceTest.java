@@ -0,0 +1,165 @@
+package com.bankapp.auth.repository;
+
+import com.bankapp.auth.model.Account;
+import com.bankapp.auth.model.Client;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Формат хранения клиентов: кодирование записи (текущая версия и чтение версии 1),
+ * снимок и повтор хвоста журнала при повторном старте.
+ */
+class ClientPersistenceTest {
+
+    private static final int JOURNAL_HEADER_SIZE = 4 + 4 + 8;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void encodesAndDecodesCurrentVersion() {
+        Client client = client("Иван Петров");
+        client.setPassword(null);
+        client.setPasswordHash("$2a$04$abcdefghijklmnopqrstuv");
+
+        ByteBuffer buffer = ByteBuffer.allocate(ClientCodec.maxEncodedSize(client));
+        ClientCodec.encode(client, buffer);
+        buffer.flip();
+        int length = buffer.getInt();
+        Client decoded = ClientCodec.decode(buffer, new byte[][]{new byte[1]}, ClientCodec.VERSION);
+
+        assertEquals(4 + length, buffer.position());
+        assertEquals(client, decoded);
+        assertNull(decoded.getPassword());
+    }
+
+    @Test
+    void decodesVersionOneRecordWithoutPasswordHash() {
+        // Запись версии 1 собрана вручную: после пароля сразу идут счета
+        ByteBuffer buffer = ByteBuffer.allocate(512);
+        buffer.putInt(0);
+        ClientCodec.putString(buffer, "client-1");
+        ClientCodec.putString(buffer, "Анна Смирнова");
+        ClientCodec.putString(buffer, null);
+        ClientCodec.putString(buffer, "anna");
+        ClientCodec.putString(buffer, "secret");
+        buffer.putInt(1);
+        ClientCodec.putString(buffer, "account-1");
+        ClientCodec.putString(buffer, "100000000001");
+        ClientCodec.putString(buffer, "4000000000000002");
+        buffer.putDouble(42.5);
+        buffer.putInt(0, buffer.position() - 4);
+        buffer.flip();
+
+        assertTrue(ClientCodec.isSupported(1));
+        buffer.getInt();
+        Client decoded = ClientCodec.decode(buffer, new byte[][]{new byte[1]}, 1);
+
+        assertFalse(buffer.hasRemaining());
+        assertEquals("client-1", decoded.getId());
+        assertEquals("Анна Смирнова", decoded.getFullName());
+        assertNull(decoded.getPhone());
+        assertEquals("anna", decoded.getUsername());
+        assertEquals("secret", decoded.getPassword());
+        assertNull(decoded.getPasswordHash());
+        assertEquals(1, decoded.getAccounts().size());
+        Account account = decoded.getAccounts().get(0);
+        assertEquals("account-1", account.getId());
+        assertEquals("100000000001", account.getAccountNumber());
+        assertEquals("4000000000000002", account.getCardNumber());
+        assertEquals(42.5, account.getBalance());
+    }
+
+    @Test
+    void restoresSnapshotAndReplaysJournalTail() throws Exception {
+        Client inSnapshot = ClientRepository.save(client("Клиент из снимка"));
+        ClientPersistence persistence = persistence();
+        persistence.start();
+        persistence.compact();
+
+        // После снимка: новый клиент и обновление клиента из снимка попадают только в журнал
+        Client inJournal = ClientRepository.save(client("Клиент из журнала"));
+        Client updated = copy(inSnapshot);
+        updated.getAccounts().get(0).setBalance(1_000);
+        ClientRepository.save(updated);
+        awaitJournal(journalSize(inJournal, updated));
+        persistence.stop();
+
+        Map<String, Client> snapshot = new ConcurrentHashMap<>();
+        ClientSnapshot.Loaded loaded = ClientSnapshot.read(directory, client -> snapshot.put(client.getId(), client));
+        assertNotNull(loaded);
+        assertEquals(1, loaded.generation());
+        assertEquals(inSnapshot, snapshot.get(inSnapshot.getId()));
+        assertFalse(snapshot.containsKey(inJournal.getId()));
+
+        ClientPersistence restarted = persistence();
+        restarted.start();
+        try {
+            Client restoredFromJournal = ClientRepository.findByUsername(inJournal.getUsername()).orElseThrow();
+            assertNotSame(inJournal, restoredFromJournal);
+            assertEquals(inJournal, restoredFromJournal);
+
+            Client restoredUpdate = ClientRepository.findByUsername(inSnapshot.getUsername()).orElseThrow();
+            assertNotSame(updated, restoredUpdate);
+            assertEquals(updated, restoredUpdate);
+            assertEquals(1_000, restoredUpdate.getAccounts().get(0).getBalance());
+        } finally {
+            restarted.stop();
+        }
+    }
+
+    private ClientPersistence persistence() {
+        return new ClientPersistence(true, directory.toString(), Duration.ofHours(1), false, false);
+    }
+
+    // Хранилище общее для всех тестов, поэтому логины и номера уникальны
+    private static Client client(String fullName) {
+        String suffix = UUID.randomUUID().toString();
+        Client client = new Client(suffix, fullName, "+7 900 000-00-00", "user-" + suffix, "password");
+        client.getAccounts().add(new Account(null, null, null, 10.25));
+        return client;
+    }
+
+    private static Client copy(Client client) {
+        ByteBuffer buffer = ByteBuffer.allocate(ClientCodec.maxEncodedSize(client));
+        ClientCodec.encode(client, buffer);
+        buffer.flip().getInt();
+        return ClientCodec.decode(buffer, new byte[][]{new byte[1]}, ClientCodec.VERSION);
+    }
+
+    private static long journalSize(Client... clients) {
+        long size = JOURNAL_HEADER_SIZE;
+        for (Client client : clients) {
+            ByteBuffer buffer = ByteBuffer.allocate(ClientCodec.maxEncodedSize(client));
+            ClientCodec.encode(client, buffer);
+            size += buffer.position();
+        }
+        return size;
+    }
+
+    // Журнал пишет отдельный поток — ждем, пока записи дойдут до файла текущего поколения
+    private void awaitJournal(long expectedSize) throws IOException, InterruptedException {
+        Path journal = directory.resolve(String.format("journal-%020d.log", 1));
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (Files.size(journal) < expectedSize) {
+            assertTrue(System.nanoTime() < deadline, "journal was not written in time");
+            Thread.sleep(10);
+        }
+    }
+}
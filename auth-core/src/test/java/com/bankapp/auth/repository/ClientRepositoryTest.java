@@ -0,0 +1,99 @@
+package com.bankapp.auth.repository;
+
+import com.bankapp.auth.model.Account;
+import com.bankapp.auth.model.Client;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Индексы ClientRepository: повторное сохранение клиента в новом экземпляре убирает старые телефон и счета,
+ * занятые логин и ID не перезаписываются.
+ * Хранилище общее для всех тестов, поэтому логины, телефоны и номера уникальны.
+ */
+class ClientRepositoryTest {
+
+    @Test
+    void resaveReplacesPhoneAndAccountIndexes() {
+        Client original = client(phone());
+        Account kept = account();
+        Account dropped = account();
+        original.getAccounts().add(kept);
+        original.getAccounts().add(dropped);
+        ClientRepository.save(original);
+
+        String newPhone = phone();
+        Client resaved = new Client(original.getId(), original.getFullName(), newPhone, original.getUsername(), null);
+        resaved.getAccounts().add(kept);
+        Account added = account();
+        resaved.getAccounts().add(added);
+        ClientRepository.save(resaved);
+
+        assertTrue(ClientRepository.findByPhone(original.getPhone()).isEmpty());
+        assertEquals(List.of(resaved), ClientRepository.findByPhone(newPhone));
+        assertEquals(List.of(resaved), ClientRepository.findByPhonePrefix(newPhone, 10));
+        assertSame(resaved, ClientRepository.findByAccountNumber(kept.getAccountNumber()).orElseThrow());
+        assertSame(resaved, ClientRepository.findByCardNumber(kept.getCardNumber()).orElseThrow());
+        assertSame(resaved, ClientRepository.findByAccountNumber(added.getAccountNumber()).orElseThrow());
+        assertTrue(ClientRepository.findByAccountNumber(dropped.getAccountNumber()).isEmpty());
+        assertTrue(ClientRepository.findByCardNumber(dropped.getCardNumber()).isEmpty());
+        assertSame(resaved, ClientRepository.findByUsername(original.getUsername()).orElseThrow());
+        assertSame(resaved, ClientRepository.findById(original.getId()).orElseThrow());
+    }
+
+    @Test
+    void keepsExistingClientWhenUsernameIsTaken() {
+        Client existing = ClientRepository.save(client(phone()));
+        Client other = new Client(UUID.randomUUID().toString(), "Другой", phone(), existing.getUsername(), "secret");
+
+        assertThrows(DuplicateUsernameException.class, () -> ClientRepository.save(other));
+        assertFalse(ClientRepository.saveIfAbsent(other));
+        // Даже тот же ID не перезаписывает клиента через saveIfAbsent
+        Client sameId = new Client(existing.getId(), "Копия", phone(), existing.getUsername(), "secret");
+        assertFalse(ClientRepository.saveIfAbsent(sameId));
+
+        assertSame(existing, ClientRepository.findByUsername(existing.getUsername()).orElseThrow());
+        assertTrue(ClientRepository.findByPhone(other.getPhone()).isEmpty());
+        assertTrue(ClientRepository.findByPhone(sameId.getPhone()).isEmpty());
+    }
+
+    @Test
+    void rejectsIdOwnedByAnotherUsername() {
+        Client existing = ClientRepository.save(client(phone()));
+        Client intruder = new Client(existing.getId(), "Чужой", phone(), "user-" + UUID.randomUUID(), "secret");
+
+        assertThrows(DuplicateClientIdException.class, () -> ClientRepository.save(intruder));
+        assertThrows(DuplicateClientIdException.class, () -> ClientRepository.saveIfAbsent(intruder));
+
+        assertSame(existing, ClientRepository.findById(existing.getId()).orElseThrow());
+        // Логин отклоненного клиента не остается занятым
+        assertEquals(Optional.empty(), ClientRepository.findByUsername(intruder.getUsername()));
+        assertTrue(ClientRepository.findByPhone(intruder.getPhone()).isEmpty());
+    }
+
+    private static Client client(String phone) {
+        String id = UUID.randomUUID().toString();
+        return new Client(id, "Клиент " + phone, phone, "user-" + id, "secret");
+    }
+
+    // Уникальный 15-значный номер: не пересекается с телефонами других тестов
+    private static String phone() {
+        return "+1" + ThreadLocalRandom.current().nextLong(1_000_000_000_000L, 10_000_000_000_000L);
+    }
+
+    private static Account account() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new Account(UUID.randomUUID().toString(),
+                Long.toString(random.nextLong(100_000_000_000L, 1_000_000_000_000L)),
+                Long.toString(random.nextLong(4_000_000_000_000_000L, 5_000_000_000_000_000L)), 0);
+    }
+}
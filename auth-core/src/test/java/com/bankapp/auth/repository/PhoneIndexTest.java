@@ -0,0 +1,202 @@
+package com.bankapp.auth.repository;
+
+import com.bankapp.auth.model.Client;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Индекс по телефону: точный поиск и поиск по префиксу после раскладки листьев, удаление,
+ * предел числа результатов и одновременные добавления и удаления.
+ * Ожидаемый результат строится по TreeMap цифр номера: порядок индекса совпадает со строковым порядком цифр.
+ */
+class PhoneIndexTest {
+
+    private static final String[] PREFIXES = {"", "7", "79", "790", "7900", "79000", "790000", "790001", "7900012",
+            "79000123", "7901", "8"};
+
+    @Test
+    void findsExactAndPrefixMatchesAcrossLeafSplits() {
+        PhoneIndex index = new PhoneIndex();
+        TreeMap<String, Client> expected = populate(index, 5_000, new Random(1));
+
+        for (Map.Entry<String, Client> entry : expected.entrySet()) {
+            // Формат не важен: сравниваются только цифры
+            assertEquals(List.of(entry.getValue()), index.find(spaced(entry.getKey())), entry.getKey());
+        }
+        assertTrue(index.find("+7 900 999 99 99 99").isEmpty());
+        for (String prefix : PREFIXES) {
+            assertEquals(withPrefix(expected, prefix), index.findByPrefix(prefix, Integer.MAX_VALUE), prefix);
+        }
+    }
+
+    @Test
+    void capsPrefixResultsAtLimit() {
+        PhoneIndex index = new PhoneIndex();
+        TreeMap<String, Client> expected = populate(index, 2_000, new Random(2));
+        List<Client> all = withPrefix(expected, "7900");
+
+        assertEquals(all.subList(0, 10), index.findByPrefix("+7 900", 10));
+        assertEquals(all.subList(0, 1), index.findByPrefix("7900", 1));
+        assertTrue(index.findByPrefix("7900", 0).isEmpty());
+        assertEquals(all, index.findByPrefix("7900", all.size() + 100));
+        // Префикс без цифр ничего не находит, пустой префикс — все номера
+        assertTrue(index.findByPrefix("+", 10).isEmpty());
+        assertEquals(withPrefix(expected, "").subList(0, 5), index.findByPrefix("", 5));
+    }
+
+    @Test
+    void removesClientsAndKeepsSharedNumbers() {
+        PhoneIndex index = new PhoneIndex();
+        TreeMap<String, Client> expected = populate(index, 3_000, new Random(3));
+        List<String> numbers = new ArrayList<>(expected.keySet());
+        for (int i = 0; i < numbers.size(); i += 2) {
+            index.remove(expected.remove(numbers.get(i)));
+        }
+        for (String prefix : PREFIXES) {
+            assertEquals(withPrefix(expected, prefix), index.findByPrefix(prefix, Integer.MAX_VALUE), prefix);
+        }
+        for (int i = 0; i < numbers.size(); i += 2) {
+            assertTrue(index.find(numbers.get(i)).isEmpty(), numbers.get(i));
+        }
+
+        // Несколько клиентов с одним номером: удаление одного не трогает остальных
+        Client first = client("+7 (999) 123-45-67");
+        Client second = client("79991234567");
+        Client third = client("+79991234567");
+        index.add(first);
+        index.add(second);
+        index.add(third);
+        assertEquals(Set.of(first, second, third), Set.copyOf(index.find("79991234567")));
+        index.remove(second);
+        assertEquals(Set.of(first, third), Set.copyOf(index.find("79991234567")));
+        assertEquals(Set.of(first, third), Set.copyOf(index.findByPrefix("7999", 10)));
+
+        // Повторное добавление клиента с тем же ID заменяет экземпляр, а не добавляет второй
+        Client resaved = new Client(first.getId(), "Новое имя", first.getPhone(), first.getUsername(), null);
+        index.add(resaved);
+        assertEquals(Set.of(resaved, third), Set.copyOf(index.find("79991234567")));
+    }
+
+    @Test
+    void survivesConcurrentAddsAndRemoves() throws Exception {
+        PhoneIndex index = new PhoneIndex();
+        int writers = 4;
+        int perWriter = 5_000;
+        Map<String, Client> expected = new ConcurrentHashMap<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 2);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(executor.submit(() -> {
+                    while (writing.get()) {
+                        List<Client> found = index.findByPrefix("7900", 200);
+                        assertTrue(found.size() <= 200);
+                        String previous = "";
+                        for (Client client : found) {
+                            assertNotNull(client);
+                            String digits = digits(client.getPhone());
+                            assertTrue(digits.startsWith("7900"), digits);
+                            assertTrue(previous.compareTo(digits) <= 0, previous + " > " + digits);
+                            previous = digits;
+                        }
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                tasks.add(executor.submit(() -> {
+                    List<Client> added = new ArrayList<>(perWriter);
+                    for (int i = 0; i < perWriter; i++) {
+                        // Номера писателей не пересекаются, но делят листья (последняя цифра — номер писателя)
+                        Client client = client(String.format("+7900%06d%d", i, writer));
+                        index.add(client);
+                        added.add(client);
+                    }
+                    for (int i = 0; i < added.size(); i++) {
+                        if (i % 3 == 0) {
+                            index.remove(added.get(i));
+                        } else {
+                            expected.put(digits(added.get(i).getPhone()), added.get(i));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get(1, TimeUnit.MINUTES);
+            }
+            writing.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        TreeMap<String, Client> sorted = new TreeMap<>(expected);
+        assertEquals(withPrefix(sorted, "7900"), index.findByPrefix("7900", Integer.MAX_VALUE));
+        for (Map.Entry<String, Client> entry : sorted.entrySet()) {
+            assertEquals(List.of(entry.getValue()), index.find(entry.getKey()));
+        }
+    }
+
+    /**
+     * Заполняет индекс count номерами, сосредоточенными под +7900 00/01 (так листья раскладываются на несколько
+     * уровней), и короткими номерами, которые заканчиваются на глубине разложенных узлов.
+     */
+    private static TreeMap<String, Client> populate(PhoneIndex index, int count, Random random) {
+        TreeMap<String, Client> expected = new TreeMap<>();
+        for (String shortNumber : new String[]{"7", "79", "790", "7900", "79000", "790001", "7900012"}) {
+            expected.put(shortNumber, client("+" + shortNumber));
+        }
+        while (expected.size() < count) {
+            String digits = String.format("7900%07d", random.nextInt(200_000));
+            expected.computeIfAbsent(digits, key -> client("+" + key));
+        }
+        expected.put("89001234567", client("+8 900 123-45-67"));
+        expected.values().forEach(index::add);
+        return expected;
+    }
+
+    private static List<Client> withPrefix(NavigableMap<String, Client> expected, String prefix) {
+        return expected.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .map(Map.Entry::getValue)
+                .toList();
+    }
+
+    private static Client client(String phone) {
+        String id = UUID.randomUUID().toString();
+        return new Client(id, "Клиент " + phone, phone, "phone-" + id, null);
+    }
+
+    private static String digits(String phone) {
+        return phone.replaceAll("\\D", "");
+    }
+
+    // Те же цифры в другом формате: группы по три через пробел
+    private static String spaced(String digits) {
+        return "+" + digits.replaceAll("(\\d{3})", "$1 ").trim();
+    }
+}
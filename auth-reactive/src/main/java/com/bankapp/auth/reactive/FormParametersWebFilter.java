@@ -0,0 +1,41 @@
+package com.bankapp.auth.reactive;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * В WebFlux @RequestParam видит только параметры строки запроса, а клиенты мока передают
+ * register, login и /timeout/set формой (application/x-www-form-urlencoded).
+ * Фильтр переносит поля формы в строку запроса, поэтому контроллеры работают с тем же контрактом, что и на Tomcat.
+ */
+@Component
+public class FormParametersWebFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        MediaType contentType = exchange.getRequest().getHeaders().getContentType();
+        if (contentType == null || !MediaType.APPLICATION_FORM_URLENCODED.isCompatibleWith(contentType)) {
+            return chain.filter(exchange);
+        }
+        return exchange.getFormData().flatMap(form -> {
+            if (form.isEmpty()) {
+                return chain.filter(exchange);
+            }
+            UriComponentsBuilder uri = UriComponentsBuilder.fromUri(exchange.getRequest().getURI());
+            // Кодируем так же, как форма: строка запроса WebFlux декодируется URLDecoder ("+" — пробел)
+            form.forEach((name, values) -> values.forEach(value -> uri.queryParam(
+                    URLEncoder.encode(name, StandardCharsets.UTF_8), URLEncoder.encode(value, StandardCharsets.UTF_8))));
+            URI withForm = uri.build(true).toUri();
+            return chain.filter(exchange.mutate().request(request -> request.uri(withForm)).build());
+        });
+    }
+}
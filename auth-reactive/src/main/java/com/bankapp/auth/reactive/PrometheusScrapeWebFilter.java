@@ -0,0 +1,66 @@
+package com.bankapp.auth.reactive;
+
+import observability.PrometheusScrapeCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * GET /actuator/prometheus из заранее подготовленного снимка PrometheusScrapeCache, как сервлетный фильтр auth-service.
+ * Запросы с includedNames обрабатывает обычный эндпоинт actuator.
+ * Включается, как и сам кэш, только при заданном observability.prometheus.refresh-interval и доступном эндпоинте prometheus.
+ */
+@Component
+@ConditionalOnProperty("observability.prometheus.refresh-interval")
+@ConditionalOnAvailableEndpoint(endpoint = PrometheusScrapeEndpoint.class)
+public class PrometheusScrapeWebFilter implements WebFilter {
+
+    private final PrometheusScrapeCache cache;
+    private final String scrapePath;
+
+    public PrometheusScrapeWebFilter(PrometheusScrapeCache cache,
+                                     @Value("${management.endpoints.web.base-path:/actuator}") String basePath) {
+        this.cache = cache;
+        this.scrapePath = basePath + "/prometheus";
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET
+                || !scrapePath.equals(request.getPath().pathWithinApplication().value())
+                || request.getQueryParams().containsKey("includedNames")) {
+            return chain.filter(exchange);
+        }
+        HttpHeaders headers = request.getHeaders();
+        PrometheusScrapeCache.Format format = PrometheusScrapeCache.Format.negotiate(headers.getFirst(HttpHeaders.ACCEPT));
+        // Рендер при устаревшем снимке — блокирующий, поэтому не в потоке Netty
+        return Mono.fromCallable(() -> cache.get(format))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(snapshot -> {
+                    String acceptEncoding = headers.getFirst(HttpHeaders.ACCEPT_ENCODING);
+                    boolean gzip = snapshot.gzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+                    byte[] body = gzip ? snapshot.gzip() : snapshot.body();
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.getHeaders().setContentType(MediaType.parseMediaType(format.contentType()));
+                    response.getHeaders().set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                    if (gzip) {
+                        response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                    }
+                    response.getHeaders().setContentLength(body.length);
+                    return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+                });
+    }
+}
@@ -0,0 +1,25 @@
+package com.bankapp.auth.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.annotation.ComponentScan;
+
+import java.util.Map;
+
+/**
+ * Тот же API мока на WebFlux/Netty: ожидание задержки и места у ограничителя не занимает поток.
+ * Логика — AuthService и остальные сервисы auth-core, контроллеры /timeout/* и /capacity/*, наблюдения
+ * и кэш /actuator/prometheus — из auth-web-common, как в auth-service; /auth/* обслуживает ReactiveAuthController.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@ComponentScan(basePackages = {"observability", "com.bankapp.auth"})
+public class ReactiveAuthApplication {
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(ReactiveAuthApplication.class);
+        // Общий с auth-service application.properties (например, ./application.properties), auth-reactive.properties его переопределяет
+        application.setDefaultProperties(Map.of("spring.config.name", "application,auth-reactive"));
+        application.run(args);
+    }
+}
@@ -0,0 +1,156 @@
+package com.bankapp.auth.reactive;
+
+// Импорты необходимых библиотек и классов
+import com.bankapp.auth.cluster.ClusterUnavailableException; // Ошибка: узел-владелец логина недоступен
+import com.bankapp.auth.model.Client; // Модель клиента
+import com.bankapp.auth.repository.DuplicateUsernameException; // Ошибка: логин уже занят
+import com.bankapp.auth.service.AuthService; // Регистрация, вход и сессии с задержками, ограничениями и метриками
+import com.bankapp.auth.service.CustomMetricsService.Action; // Действие (тег action в журнале запросов)
+import com.bankapp.auth.service.RequestLogService; // Асинхронный журнал запросов с лимитом строк
+import com.bankapp.auth.util.CapacityExceededException; // Отказ ограничителя пропускной способности
+import com.bankapp.auth.util.SessionManager; // Заголовок и cookie с токеном сессии
+import io.swagger.v3.oas.annotations.Operation; // Аннотации Swagger для документирования API
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders; // Имена стандартных HTTP-заголовков
+import org.springframework.http.HttpStatus; // Коды HTTP-ответов
+import org.springframework.http.ResponseCookie; // Cookie с токеном сессии
+import org.springframework.http.ResponseEntity; // Ответ с заголовками
+import org.springframework.web.bind.annotation.*; // Аннотации для создания REST-эндпоинтов
+import reactor.core.publisher.Mono; // Асинхронный результат WebFlux
+
+import java.util.concurrent.RejectedExecutionException;
+
+// Эндпоинты /auth/* с тем же контрактом, что у AuthController, но без блокировки потоков:
+// логика, задержки, ограничения и метрики — в AuthService, контроллер подписывается на его future
+@RestController
+@RequestMapping("/auth")
+@Tag(name = "Аутентификация", description = "Методы регистрации, входа, выхода и проверки сессии пользователя (WebFlux)")
+public class ReactiveAuthController {
+
+    private final AuthService authService; // Регистрация, вход, выход и проверка сессии
+    private final RequestLogService requestLog; // Журнал запросов: запись в отдельном потоке, не в event loop
+
+    public ReactiveAuthController(AuthService authService, RequestLogService requestLog) {
+        this.authService = authService;
+        this.requestLog = requestLog;
+    }
+
+    // Эндпоинт для регистрации нового пользователя
+    @PostMapping("/register")
+    @Operation(summary = "Регистрация нового пользователя", description = "Создает нового пользователя в системе.")
+    public Mono<Client> register(
+            @RequestParam @Schema(description = "Полное имя пользователя", example = "Иван Иванов") String fullName,
+            @RequestParam @Schema(description = "Телефон пользователя с +7", example = "+79001112233") String phone,
+            @RequestParam @Schema(description = "Уникальный логин пользователя", example = "user1") String username,
+            @RequestParam @Schema(description = "Пароль", example = "pass1") String password
+    ) {
+        requestLog.info(Action.REGISTER, "register_attempt", "username", username);
+        return Mono.fromFuture(() -> authService.register(fullName, phone, username, password));
+    }
+
+    // Эндпоинт для входа пользователя в систему
+    @PostMapping("/login")
+    @Operation(summary = "Вход в систему", description = "Авторизует пользователя по логину и паролю. "
+            + "Токен сессии возвращается в заголовке X-Auth-Token и в cookie AUTH_TOKEN.")
+    public Mono<ResponseEntity<String>> login(
+            @RequestParam @Schema(description = "Логин пользователя", example = "user1") String username,
+            @RequestParam @Schema(description = "Пароль пользователя", example = "pass1") String password
+    ) {
+        requestLog.info(Action.LOGIN, "login_attempt", "username", username);
+        return Mono.fromFuture(() -> authService.login(username, password))
+                .map(tokenOpt -> tokenOpt
+                        // Токен — в заголовке и cookie
+                        .map(token -> ResponseEntity.ok()
+                                .header(SessionManager.TOKEN_HEADER, token)
+                                .header(HttpHeaders.SET_COOKIE, sessionCookie(token, -1).toString())
+                                .body("✅ Успешный вход: " + username))
+                        .orElseGet(() -> ResponseEntity.ok("❌ Ошибка: Неверный логин или пароль")));
+    }
+
+    // Эндпоинт для выхода из системы
+    @PostMapping("/logout")
+    @Operation(summary = "Выход из системы", description = "Завершает сессию, токен которой передан в заголовке X-Auth-Token или cookie AUTH_TOKEN.")
+    public Mono<ResponseEntity<String>> logout(
+            @RequestHeader(name = SessionManager.TOKEN_HEADER, required = false) String tokenHeader,
+            @CookieValue(name = SessionManager.TOKEN_COOKIE, required = false) String tokenCookie
+    ) {
+        requestLog.info(Action.LOGOUT, "logout");
+        return Mono.fromFuture(() -> authService.logout(resolveToken(tokenHeader, tokenCookie)))
+                .map(removed -> ResponseEntity.ok()
+                        .header(HttpHeaders.SET_COOKIE, sessionCookie("", 0).toString())
+                        .body("✅ Успешный выход"));
+    }
+
+    // Эндпоинт для проверки статуса авторизации
+    @GetMapping("/isLogged")
+    @Operation(summary = "Проверка авторизации", description = "Возвращает статус, авторизован ли пользователь с переданным токеном сессии.")
+    public Mono<String> isLogged(
+            @RequestHeader(name = SessionManager.TOKEN_HEADER, required = false) String tokenHeader,
+            @CookieValue(name = SessionManager.TOKEN_COOKIE, required = false) String tokenCookie
+    ) {
+        requestLog.info(Action.IS_LOGGED, "is_logged");
+        return Mono.fromFuture(() -> authService.isLoggedInAsync(resolveToken(tokenHeader, tokenCookie)))
+                .map(SessionManager::statusOf);
+    }
+
+    // Эндпоинт для получения имени авторизованного пользователя
+    @GetMapping("/user")
+    @Operation(summary = "Получить имя пользователя", description = "Возвращает логин пользователя, которому принадлежит токен сессии.")
+    public Mono<String> getUser(
+            @RequestHeader(name = SessionManager.TOKEN_HEADER, required = false) String tokenHeader,
+            @CookieValue(name = SessionManager.TOKEN_COOKIE, required = false) String tokenCookie
+    ) {
+        requestLog.info(Action.GET_USER, "get_user");
+        return Mono.fromFuture(() -> authService.getUserAsync(resolveToken(tokenHeader, tokenCookie)))
+                .map(clientOpt -> clientOpt.map(Client::getUsername).orElse("❌ Ошибка: Пользователь не авторизован"));
+    }
+
+    // Токен из заголовка имеет приоритет над cookie
+    private static String resolveToken(String tokenHeader, String tokenCookie) {
+        return tokenHeader != null && !tokenHeader.isEmpty() ? tokenHeader : tokenCookie;
+    }
+
+    // Cookie с токеном сессии (maxAge < 0 — до закрытия браузера, 0 — удалить)
+    private static ResponseCookie sessionCookie(String token, long maxAgeSeconds) {
+        return ResponseCookie.from(SessionManager.TOKEN_COOKIE, token)
+                .httpOnly(true)
+                .path("/")
+                .maxAge(maxAgeSeconds)
+                .build();
+    }
+
+    // Ограничитель пропускной способности: превышение частоты — 429, нет места в очереди — 503
+    @ExceptionHandler(CapacityExceededException.class)
+    public ResponseEntity<String> handleCapacityExceeded(CapacityExceededException e) {
+        HttpStatus status = e.getReason() == CapacityExceededException.Reason.RATE
+                ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("❌ Ошибка: Сервис перегружен, повторите попытку позже");
+    }
+
+    // Пул хеширования паролей переполнен
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String handleHashingOverload(RejectedExecutionException e) {
+        return "❌ Ошибка: Сервис перегружен, повторите попытку позже";
+    }
+
+    // Узел-владелец логина недоступен — 503
+    @ExceptionHandler(ClusterUnavailableException.class)
+    public ResponseEntity<String> handleClusterUnavailable(ClusterUnavailableException e) {
+        requestLog.warn("cluster_unavailable", "error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("❌ Ошибка: Узел кластера недоступен, повторите попытку позже");
+    }
+
+    // Повторная регистрация занятого логина — 409 Conflict
+    @ExceptionHandler(DuplicateUsernameException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public String handleDuplicateUsername(DuplicateUsernameException e) {
+        requestLog.info(Action.REGISTER, "register_rejected", "username", e.getUsername());
+        return "❌ Ошибка: Пользователь с логином '" + e.getUsername() + "' уже существует";
+    }
+}
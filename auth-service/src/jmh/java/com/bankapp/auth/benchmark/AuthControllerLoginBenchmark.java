@@ -0,0 +1,103 @@
+package com.bankapp.auth.benchmark;
+
+import com.bankapp.auth.cluster.ClusterService;
+import com.bankapp.auth.controller.AuthController;
+import com.bankapp.auth.model.Client;
+import com.bankapp.auth.model.LatencyDistribution;
+import com.bankapp.auth.repository.ClientRepository;
+import com.bankapp.auth.service.AuthService;
+import com.bankapp.auth.service.CapacityService;
+import com.bankapp.auth.service.ClientService;
+import com.bankapp.auth.service.CredentialService;
+import com.bankapp.auth.service.CustomMetricsService;
+import com.bankapp.auth.service.RequestLogService;
+import com.bankapp.auth.service.TimeoutService;
+import com.bankapp.auth.util.DelayScheduler;
+import com.bankapp.auth.util.SessionManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полный путь AuthController.login без HTTP и с нулевыми задержками:
+ * задержка, проверка пароля, создание сессии, метрики. Показывает собственную задержку мока.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthControllerLoginBenchmark {
+
+    @Param({"blocking", "async"})
+    public String delayMode;
+
+    @Param({"plain"})
+    public String algorithm;
+
+    private DelayScheduler delayScheduler;
+    private CredentialService credentialService;
+    private SessionManager sessionManager;
+    private RequestLogService requestLog;
+    private AuthController authController;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        delayScheduler = new DelayScheduler(delayMode, 1000, 4096, 0, meterRegistry);
+        TimeoutService timeoutService = new TimeoutService(delayScheduler);
+        LatencyDistribution none = new LatencyDistribution.Fixed(0);
+        timeoutService.setDistributions(Map.of("login", none, "register", none, "logout", none));
+        credentialService = new CredentialService(algorithm, 0, 0, 10_000, 0, meterRegistry);
+        // Небольшое лимитированное хранилище сессий: каждый вход создает новую
+        sessionManager = new SessionManager(Duration.ofMinutes(30), Duration.ofHours(8), 100_000,
+                Duration.ofSeconds(1), meterRegistry);
+        CustomMetricsService metricsService = new CustomMetricsService(meterRegistry,
+                List.of(Duration.ofMillis(5), Duration.ofMillis(50), Duration.ofMillis(500)), new double[]{0.5, 0.99});
+        ClusterService clusterService = new ClusterService(false, "localhost:9082", "", 128, Duration.ofSeconds(5), 1024,
+                new ClientService(credentialService), sessionManager, meterRegistry);
+        // Журнал запросов с настройками по умолчанию: очередь и 100 строк/с, остальное отбрасывается
+        requestLog = new RequestLogService(meterRegistry, true, 8192, 100, "drop", 100, "text");
+        authController = new AuthController(new AuthService(clusterService, sessionManager,
+                timeoutService, new CapacityService(delayScheduler, meterRegistry), metricsService), requestLog);
+        ClientRepository.save(new Client("bench", null, null, "bench-user", "bench-password"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        requestLog.close();
+        sessionManager.shutdown();
+        credentialService.shutdown();
+        delayScheduler.shutdown();
+    }
+
+    @Benchmark
+    public ResponseEntity<String> login() {
+        return authController.login("bench-user", "bench-password").join();
+    }
+
+    @Benchmark
+    public ResponseEntity<String> loginWrongPassword() {
+        return authController.login("bench-user", "wrong").join();
+    }
+}
@@ -0,0 +1,106 @@
+package com.bankapp.auth.benchmark;
+
+import com.bankapp.auth.model.Client;
+import com.bankapp.auth.repository.ClientRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Поиск и сохранение клиентов при разном размере хранилища.
+ * ClientRepository статический, поэтому каждый набор параметров запускается в отдельном форке.
+ * Клиенты без имени и телефона, чтобы 10 млн поместились в кучу форка.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-XX:+UseParallelGC"})
+public class ClientRepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int users;
+
+    private Client[] existing;
+    private final AtomicLong nextId = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void fill() {
+        for (int i = 0; i < users; i++) {
+            ClientRepository.save(new Client(Integer.toString(i), null, null, "user" + i, "password"));
+        }
+        nextId.set(users);
+        // Небольшая выборка существующих клиентов для повторного сохранения
+        existing = new Client[Math.min(users, 1024)];
+        for (int i = 0; i < existing.length; i++) {
+            Client client = ClientRepository.findByUsername("user" + (i * (users / existing.length))).orElseThrow();
+            existing[i] = new Client(client.getId(), null, null, client.getUsername(), client.getPassword());
+        }
+        // Переносим заполненное хранилище в старое поколение, иначе первые итерации меряют сборку мусора
+        System.gc();
+    }
+
+    // Случайный существующий логин строится до замера, чтобы не мерить конкатенацию
+    @State(Scope.Thread)
+    public static class Lookup {
+        String[] usernames;
+        int next;
+
+        @Setup(Level.Trial)
+        public void prepare(ClientRepositoryBenchmark benchmark) {
+            usernames = new String[4096];
+            for (int i = 0; i < usernames.length; i++) {
+                usernames[i] = "user" + ThreadLocalRandom.current().nextInt(benchmark.users);
+            }
+        }
+
+        String nextUsername() {
+            return usernames[next++ & (usernames.length - 1)];
+        }
+    }
+
+    @Benchmark
+    public Optional<Client> findByUsernameHit(Lookup lookup) {
+        return ClientRepository.findByUsername(lookup.nextUsername());
+    }
+
+    @Benchmark
+    public Optional<Client> findByUsernameMiss() {
+        return ClientRepository.findByUsername("missing");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<Client> findByUsernameHitContended(Lookup lookup) {
+        return ClientRepository.findByUsername(lookup.nextUsername());
+    }
+
+    // Повторное сохранение того же клиента новым экземпляром (путь повтора журнала)
+    @Benchmark
+    public Client saveExisting(Lookup lookup) {
+        return ClientRepository.save(existing[lookup.next++ & (existing.length - 1)]);
+    }
+
+    // Регистрация нового клиента; хранилище растет во время замера
+    @Benchmark
+    public Client saveNew() {
+        long id = nextId.getAndIncrement();
+        return ClientRepository.save(new Client(Long.toString(id), null, null, "user" + id, "password"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.bankapp.auth.benchmark;
+
+import com.bankapp.auth.service.CustomMetricsService;
+import com.bankapp.auth.service.CustomMetricsService.Action;
+import com.bankapp.auth.service.CustomMetricsService.Outcome;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость записи метрик одного запроса (start + stop) с реестром Prometheus,
+ * SLO-гистограммой и процентилями, как в приложении.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomMetricsServiceBenchmark {
+
+    private CustomMetricsService metricsService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Duration> slo = List.of(Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25),
+                Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+                Duration.ofSeconds(1), Duration.ofMillis(2500), Duration.ofSeconds(5), Duration.ofSeconds(10),
+                Duration.ofSeconds(30), Duration.ofSeconds(60));
+        metricsService = new CustomMetricsService(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), slo,
+                new double[]{0.5, 0.95, 0.99, 0.999});
+    }
+
+    @Benchmark
+    public void record() {
+        metricsService.stop(Action.LOGIN, Outcome.SUCCESS, metricsService.start(Action.LOGIN));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended() {
+        metricsService.stop(Action.LOGIN, Outcome.SUCCESS, metricsService.start(Action.LOGIN));
+    }
+}
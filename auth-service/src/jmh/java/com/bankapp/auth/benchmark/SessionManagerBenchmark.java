@@ -0,0 +1,82 @@
+package com.bankapp.auth.benchmark;
+
+import com.bankapp.auth.model.Client;
+import com.bankapp.auth.util.SessionManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Таблица сессий под конкуренцией: группа потоков проверяет токены,
+ * пока другие входят и выходят (вставка, вытеснение по лимиту, удаление).
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionManagerBenchmark {
+
+    @Param({"1000", "100000"})
+    public int sessions;
+
+    private SessionManager sessionManager;
+    private String[] tokens;
+    private Client client;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionManager = new SessionManager(Duration.ofMinutes(30), Duration.ofHours(8), sessions * 2,
+                Duration.ofSeconds(1), new SimpleMeterRegistry());
+        client = new Client("1", null, null, "user1", "password");
+        tokens = new String[sessions];
+        for (int i = 0; i < sessions; i++) {
+            tokens[i] = sessionManager.login(client);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionManager.shutdown();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public Optional<Client> getClient() {
+        return sessionManager.getClient(tokens[ThreadLocalRandom.current().nextInt(tokens.length)]);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public boolean loginLogout() {
+        return sessionManager.logout(sessionManager.login(client));
+    }
+
+    @Benchmark
+    @Group("uncontended")
+    @GroupThreads(1)
+    public boolean isLoggedIn() {
+        return sessionManager.isLoggedIn(tokens[ThreadLocalRandom.current().nextInt(tokens.length)]);
+    }
+}
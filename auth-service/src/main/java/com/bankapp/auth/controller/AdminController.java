@@ -0,0 +1,106 @@
+package com.bankapp.auth.controller;
+
+// Импорты необходимых библиотек и классов
+import com.bankapp.auth.model.Client; // Модель клиента для ответов поиска
+import com.bankapp.auth.repository.ClientRepository; // Хранилище клиентов
+import com.bankapp.auth.service.ClientSeedService; // Массовое наполнение хранилища
+import io.swagger.v3.oas.annotations.Operation; // Аннотации Swagger для документирования API
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest; // Доступ к телу запроса как к потоку
+import org.slf4j.Logger; // Логирование событий
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity; // HTTP-ответ с кодом статуса
+import org.springframework.web.bind.annotation.*; // Аннотации для создания REST-эндпоинтов
+
+import java.io.IOException;
+import java.util.List;
+
+// REST-контроллер для подготовки тестовых данных
+@RestController
+// Все эндпоинты начинаются с "/admin"
+@RequestMapping("/admin")
+// Документируем контроллер в Swagger
+@Tag(name = "Администрирование", description = "Подготовка тестовых данных: генерация, импорт и поиск клиентов")
+public class AdminController {
+
+    private static final int MAX_PREFIX_RESULTS = 1000; // Предел числа клиентов в ответе поиска по префиксу
+
+    private final ClientSeedService seedService; // Генерация и импорт клиентов
+    private final Logger log = LoggerFactory.getLogger(AdminController.class); // Логгер для записи событий
+
+    public AdminController(ClientSeedService seedService) {
+        this.seedService = seedService;
+    }
+
+    // Эндпоинт для генерации N клиентов
+    @PostMapping("/seed")
+    @Operation(
+            summary = "Сгенерировать клиентов",
+            description = "Параллельно создает count клиентов (имя, телефон +7, логин prefix0..prefixN-1, 1–3 счета). "
+                    + "Пароль — auth.seed.password, а если он не задан — совпадает с логином (user0/user0). "
+                    + "Одинаковые count и seed дают одинаковый набор клиентов. Занятые логины пропускаются, "
+                    + "существующие клиенты не меняются. В кластере клиент сохраняется на узле-владельце логина."
+    )
+    public ClientSeedService.Result seed(
+            @RequestParam @Schema(description = "Количество клиентов", example = "100000") int count,
+            @RequestParam(defaultValue = "42") @Schema(description = "Зерно генератора", example = "42") long seed
+    ) {
+        log.info("Seeding {} clients with seed {}", count, seed);
+        return seedService.seed(count, seed);
+    }
+
+    // Эндпоинт для потокового импорта клиентов в формате NDJSON
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "application/json", "text/plain"})
+    @Operation(
+            summary = "Импортировать клиентов (NDJSON)",
+            description = "Принимает поток строк вида {\"fullName\":\"Иван Иванов\",\"phone\":\"+79001112233\","
+                    + "\"username\":\"user1\",\"password\":\"pass1\",\"accounts\":[{\"balance\":100.0}]}. "
+                    + "Тело читается потоково, разбор и вставка идут параллельно. "
+                    + "В кластере клиент сохраняется на узле-владельце логина."
+    )
+    public ClientSeedService.Result importClients(HttpServletRequest request) throws IOException {
+        log.info("Importing clients from NDJSON stream");
+        return seedService.importNdjson(request.getInputStream());
+    }
+
+    // Эндпоинт для получения количества клиентов в хранилище
+    @GetMapping("/clients/count")
+    @Operation(summary = "Количество клиентов", description = "Возвращает число клиентов в хранилище (в кластере — только на этом узле).")
+    public int count() {
+        return ClientRepository.count();
+    }
+
+    // Эндпоинт для поиска клиентов по телефону или по его началу
+    @GetMapping("/clients/by-phone")
+    @Operation(
+            summary = "Клиенты по телефону",
+            description = "Сравниваются только цифры: +7 (900) 111-22-33 и 79001112233 — один номер. "
+                    + "С prefix=true возвращает не больше limit клиентов, чей телефон начинается с phone, по возрастанию номера. "
+                    + "В кластере ищет только среди клиентов этого узла."
+    )
+    public List<Client> findByPhone(
+            @RequestParam @Schema(description = "Телефон или его начало", example = "+7900111") String phone,
+            @RequestParam(defaultValue = "false") @Schema(description = "Поиск по префиксу") boolean prefix,
+            @RequestParam(defaultValue = "100") @Schema(description = "Предел числа клиентов (до 1000)", example = "100") int limit
+    ) {
+        // Поиск по префиксу всегда ограничен, чтобы короткий префикс не выгружал всю базу
+        return prefix
+                ? ClientRepository.findByPhonePrefix(phone, Math.min(Math.max(limit, 0), MAX_PREFIX_RESULTS))
+                : ClientRepository.findByPhone(phone);
+    }
+
+    // Эндпоинт для поиска клиента по номеру счета
+    @GetMapping("/clients/by-account/{accountNumber}")
+    @Operation(summary = "Клиент по номеру счета", description = "Возвращает владельца счета или 404 (в кластере — среди клиентов этого узла).")
+    public ResponseEntity<Client> findByAccountNumber(@PathVariable String accountNumber) {
+        return ResponseEntity.of(ClientRepository.findByAccountNumber(accountNumber));
+    }
+
+    // Эндпоинт для поиска клиента по номеру карты
+    @GetMapping("/clients/by-card/{cardNumber}")
+    @Operation(summary = "Клиент по номеру карты", description = "Возвращает владельца карты или 404 (в кластере — среди клиентов этого узла).")
+    public ResponseEntity<Client> findByCardNumber(@PathVariable String cardNumber) {
+        return ResponseEntity.of(ClientRepository.findByCardNumber(cardNumber));
+    }
+}
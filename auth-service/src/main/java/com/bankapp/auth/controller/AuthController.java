@@ -0,0 +1,232 @@
+package com.bankapp.auth.controller;
+
+// Импорты необходимых библиотек и классов
+import com.bankapp.auth.cluster.ClusterUnavailableException; // Ошибка: узел-владелец логина недоступен
+import com.bankapp.auth.model.Client; // Модель клиента для работы с данными пользователя
+import com.bankapp.auth.repository.DuplicateUsernameException; // Ошибка: логин уже занят
+import com.bankapp.auth.service.AuthService; // Регистрация, вход и сессии с задержками, ограничениями и метриками
+import com.bankapp.auth.service.CustomMetricsService.Action; // Эндпоинт (тег action в метриках и журнале запросов)
+import com.bankapp.auth.service.RequestLogService; // Асинхронный журнал запросов с лимитом строк
+import com.bankapp.auth.util.CapacityExceededException; // Отказ ограничителя пропускной способности
+import com.bankapp.auth.util.SessionManager; // Утилита для управления сессиями пользователей
+import io.swagger.v3.oas.annotations.Operation; // Аннотации Swagger для документирования API
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired; // Аннотация для внедрения зависимостей
+import org.springframework.http.HttpHeaders; // Имена стандартных HTTP-заголовков
+import org.springframework.http.HttpStatus; // Коды HTTP-ответов
+import org.springframework.http.ResponseCookie; // Cookie с токеном сессии
+import org.springframework.http.ResponseEntity; // Ответ с заголовками
+import org.springframework.web.bind.annotation.*; // Аннотации для создания REST-эндпоинтов
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+// Объявляем класс как REST-контроллер, который обрабатывает HTTP-запросы
+@RestController
+// Все эндпоинты начинаются с "/auth" (например, /auth/register)
+@RequestMapping("/auth")
+// Документируем контроллер в Swagger, чтобы он отображался как "Аутентификация"
+@Tag(name = "Аутентификация", description = "Методы регистрации, входа, выхода и проверки сессии пользователя")
+public class AuthController {
+
+    // Зависимости, которые нужны для работы контроллера
+    private final AuthService authService; // Логика регистрации, входа и сессий (общая с вызовами из того же процесса)
+    private final RequestLogService requestLog; // Журнал запросов: запись в отдельном потоке, без ввода-вывода в запросе
+
+    // Конструктор с внедрением зависимостей через @Autowired
+    @Autowired
+    public AuthController(AuthService authService, RequestLogService requestLog) {
+        this.authService = authService;
+        this.requestLog = requestLog;
+    }
+
+    // Эндпоинт для регистрации нового пользователя
+    @PostMapping("/register")
+    // Документируем эндпоинт в Swagger: описание, пример запроса
+    @Operation(
+            summary = "Регистрация нового пользователя",
+            description = "Создает нового пользователя в системе и сохраняет его в базе данных.",
+            requestBody = @RequestBody(
+                    description = "Данные для регистрации",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/x-www-form-urlencoded",
+                            schema = @Schema(implementation = Void.class),
+                            examples = @ExampleObject(
+                                    name = "Register Example",
+                                    summary = "Пример запроса регистрации",
+                                    value = "fullName=Иван Иванов&phone=+79001112233&username=user1&password=pass1"
+                            )
+                    )
+            )
+    )
+    public CompletableFuture<Client> register(
+            // Параметры запроса, передаваемые в форме
+            @RequestParam @Schema(description = "Полное имя пользователя", example = "Иван Иванов") String fullName,
+            @RequestParam @Schema(description = "Телефон пользователя с +7", example = "+79001112233") String phone,
+            @RequestParam @Schema(description = "Уникальный логин пользователя", example = "user1") String username,
+            @RequestParam @Schema(description = "Пароль", example = "pass1") String password
+    ) {
+        // Логируем попытку регистрации
+        requestLog.info(Action.REGISTER, "register_attempt", "username", username);
+        // Ждем места у ограничителя (если задан), применяем искусственную задержку ответа и создаем пользователя;
+        // в асинхронном режиме ответ будет завершен по таймеру без занятия потока
+        return authService.register(fullName, phone, username, password);
+    }
+
+    // Эндпоинт для входа пользователя в систему
+    @PostMapping("/login")
+    // Документируем эндпоинт в Swagger
+    @Operation(
+            summary = "Вход в систему",
+            description = "Авторизует пользователя по логину и паролю. Возвращает сообщение об успехе или ошибке. "
+                    + "Токен сессии возвращается в заголовке X-Auth-Token и в cookie AUTH_TOKEN.",
+            requestBody = @RequestBody(
+                    description = "Учетные данные",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/x-www-form-urlencoded",
+                            schema = @Schema(implementation = Void.class),
+                            examples = @ExampleObject(
+                                    name = "Login Example",
+                                    summary = "Пример логина",
+                                    value = "username=user1&password=pass1"
+                            )
+                    )
+            )
+    )
+    public CompletableFuture<ResponseEntity<String>> login(
+            // Параметры запроса для логина
+            @RequestParam @Schema(description = "Логин пользователя", example = "user1") String username,
+            @RequestParam @Schema(description = "Пароль пользователя", example = "pass1") String password
+    ) {
+        // Логируем попытку входа
+        requestLog.info(Action.LOGIN, "login_attempt", "username", username);
+        // Ждем места у ограничителя, применяем задержку и проверяем логин и пароль (хеш — в пуле CredentialService)
+        return authService.login(username, password)
+                .thenApply(tokenOpt -> {
+                    // Если пользователь найден, для него уже создана отдельная сессия
+                    if (tokenOpt.isPresent()) {
+                        String token = tokenOpt.get();
+                        // Возвращаем сообщение об успехе, токен — в заголовке и cookie
+                        return ResponseEntity.ok()
+                                .header(SessionManager.TOKEN_HEADER, token)
+                                .header(HttpHeaders.SET_COOKIE, sessionCookie(token, -1).toString())
+                                .body("✅ Успешный вход: " + username);
+                    }
+                    // Возвращаем сообщение об ошибке
+                    return ResponseEntity.ok("❌ Ошибка: Неверный логин или пароль");
+                });
+    }
+
+    // Эндпоинт для выхода из системы
+    @PostMapping("/logout")
+    // Документируем в Swagger
+    @Operation(
+            summary = "Выход из системы",
+            description = "Завершает сессию пользователя, токен которой передан в заголовке X-Auth-Token или cookie AUTH_TOKEN."
+    )
+    public CompletableFuture<ResponseEntity<String>> logout(
+            @RequestHeader(name = SessionManager.TOKEN_HEADER, required = false) String tokenHeader,
+            @CookieValue(name = SessionManager.TOKEN_COOKIE, required = false) String tokenCookie
+    ) {
+        // Токен сессии из заголовка или cookie
+        String token = resolveToken(tokenHeader, tokenCookie);
+        // Логируем запрос на выход
+        requestLog.info(Action.LOGOUT, "logout");
+        // Ждем места у ограничителя, применяем задержку ответа и удаляем сессию из таблицы
+        return authService.logout(token)
+                // Возвращаем сообщение об успехе и просим клиента удалить cookie
+                .thenApply(removed -> ResponseEntity.ok()
+                        .header(HttpHeaders.SET_COOKIE, sessionCookie("", 0).toString())
+                        .body("✅ Успешный выход"));
+    }
+
+    // Эндпоинт для проверки статуса авторизации
+    @GetMapping("/isLogged")
+    // Документируем в Swagger
+    @Operation(
+            summary = "Проверка авторизации",
+            description = "Возвращает статус, авторизован ли пользователь с переданным токеном сессии."
+    )
+    public String isLogged(
+            @RequestHeader(name = SessionManager.TOKEN_HEADER, required = false) String tokenHeader,
+            @CookieValue(name = SessionManager.TOKEN_COOKIE, required = false) String tokenCookie
+    ) {
+        // Логируем запрос проверки статуса
+        requestLog.info(Action.IS_LOGGED, "is_logged");
+        // Проверяем сессию одним обращением к таблице (с учетом ограничений пропускной способности) и возвращаем статус
+        return SessionManager.statusOf(authService.isLoggedIn(resolveToken(tokenHeader, tokenCookie)));
+    }
+
+    // Эндпоинт для получения имени авторизованного пользователя
+    @GetMapping("/user")
+    // Документируем в Swagger
+    @Operation(
+            summary = "Получить имя пользователя",
+            description = "Возвращает логин пользователя, которому принадлежит токен сессии. Если пользователь не авторизован — сообщение об ошибке."
+    )
+    public String getUser(
+            @RequestHeader(name = SessionManager.TOKEN_HEADER, required = false) String tokenHeader,
+            @CookieValue(name = SessionManager.TOKEN_COOKIE, required = false) String tokenCookie
+    ) {
+        // Логируем запрос на получение пользователя
+        requestLog.info(Action.GET_USER, "get_user");
+        // Получаем текущего пользователя из сессии
+        Client loggedInClient = authService.getUser(resolveToken(tokenHeader, tokenCookie));
+        // Если пользователь авторизован, возвращаем его логин, иначе — ошибку
+        return loggedInClient != null ? loggedInClient.getUsername() : "❌ Ошибка: Пользователь не авторизован";
+    }
+
+    // Токен из заголовка имеет приоритет над cookie
+    private static String resolveToken(String tokenHeader, String tokenCookie) {
+        return tokenHeader != null && !tokenHeader.isEmpty() ? tokenHeader : tokenCookie;
+    }
+
+    // Cookie с токеном сессии (maxAge < 0 — до закрытия браузера, 0 — удалить)
+    private static ResponseCookie sessionCookie(String token, long maxAgeSeconds) {
+        return ResponseCookie.from(SessionManager.TOKEN_COOKIE, token)
+                .httpOnly(true)
+                .path("/")
+                .maxAge(maxAgeSeconds)
+                .build();
+    }
+
+    // Ограничитель пропускной способности: превышение частоты — 429, нет места в очереди — 503
+    @ExceptionHandler(CapacityExceededException.class)
+    public ResponseEntity<String> handleCapacityExceeded(CapacityExceededException e) {
+        HttpStatus status = e.getReason() == CapacityExceededException.Reason.RATE
+                ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("❌ Ошибка: Сервис перегружен, повторите попытку позже");
+    }
+
+    // Пул хеширования паролей переполнен — сервис перегружен, как реальный при нехватке CPU
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String handleHashingOverload(RejectedExecutionException e) {
+        return "❌ Ошибка: Сервис перегружен, повторите попытку позже";
+    }
+
+    // Узел кластера, которому принадлежит логин, недоступен — 503, как при перегрузке
+    @ExceptionHandler(ClusterUnavailableException.class)
+    public ResponseEntity<String> handleClusterUnavailable(ClusterUnavailableException e) {
+        requestLog.warn("cluster_unavailable", "error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("❌ Ошибка: Узел кластера недоступен, повторите попытку позже");
+    }
+
+    // Повторная регистрация занятого логина возвращается клиенту как 409 Conflict
+    @ExceptionHandler(DuplicateUsernameException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public String handleDuplicateUsername(DuplicateUsernameException e) {
+        requestLog.info(Action.REGISTER, "register_rejected", "username", e.getUsername());
+        return "❌ Ошибка: Пользователь с логином '" + e.getUsername() + "' уже существует";
+    }
+}
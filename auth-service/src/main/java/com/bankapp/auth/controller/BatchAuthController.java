@@ -0,0 +1,164 @@
+package com.bankapp.auth.controller;
+
+// Импорты необходимых библиотек и классов
+import com.bankapp.auth.service.BatchAuthService; // Пакетная регистрация и проверка паролей
+import com.bankapp.auth.service.BatchAuthService.Delay;
+import com.bankapp.auth.service.BatchAuthService.ItemResult;
+import com.bankapp.auth.service.BatchAuthService.Kind;
+import com.bankapp.auth.service.BatchAuthService.Permit; // Место пакета у ограничителя
+import com.bankapp.auth.service.BatchAuthService.Summary;
+import com.bankapp.auth.service.CustomMetricsService.Action; // Эндпоинт (тег action в журнале запросов)
+import com.bankapp.auth.service.RequestLogService; // Асинхронный журнал запросов с лимитом строк
+import com.bankapp.auth.util.CapacityExceededException; // Отказ ограничителя пропускной способности
+import com.fasterxml.jackson.databind.ObjectMapper; // Сериализация результатов в NDJSON
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.swagger.v3.oas.annotations.Operation; // Аннотации Swagger для документирования API
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest; // Доступ к телу запроса как к потоку
+import org.springframework.http.HttpHeaders; // Имена стандартных HTTP-заголовков
+import org.springframework.http.HttpStatus; // Коды HTTP-ответов
+import org.springframework.http.MediaType; // Тип содержимого ответа
+import org.springframework.http.ResponseEntity; // Ответ с заголовками
+import org.springframework.web.bind.annotation.*; // Аннотации для создания REST-эндпоинтов
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor; // Окончание потокового ответа
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor; // Окончание ожидания задержки
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody; // Потоковый ответ
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+// REST-контроллер пакетных операций: сотни регистраций или проверок паролей одним запросом
+@RestController
+// Эндпоинты рядом с одиночными: /auth/register/batch и /auth/login/batch
+@RequestMapping("/auth")
+// Документируем контроллер в Swagger
+@Tag(name = "Пакетная аутентификация", description = "Регистрация и проверка паролей пакетами в формате NDJSON")
+public class BatchAuthController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final String PERMIT_INTERCEPTOR = BatchAuthController.class.getName() + ".permit";
+
+    private final BatchAuthService batchService; // Параллельная обработка элементов пакета
+    private final RequestLogService requestLog; // Журнал запросов: запись в отдельном потоке
+    private final ObjectWriter resultWriter; // Одна строка JSON на результат
+
+    public BatchAuthController(BatchAuthService batchService, RequestLogService requestLog, ObjectMapper objectMapper) {
+        this.batchService = batchService;
+        this.requestLog = requestLog;
+        this.resultWriter = objectMapper.writerFor(ItemResult.class);
+    }
+
+    // Эндпоинт для пакетной регистрации
+    @PostMapping(value = "/register/batch", consumes = {"application/x-ndjson", "application/json", "text/plain"})
+    @Operation(
+            summary = "Пакетная регистрация (NDJSON)",
+            description = "Принимает поток строк {\"fullName\":\"Иван Иванов\",\"phone\":\"+79001112233\","
+                    + "\"username\":\"user1\",\"password\":\"pass1\"} и возвращает поток результатов по мере готовности: "
+                    + "{\"index\":0,\"username\":\"user1\",\"outcome\":\"success\",\"id\":\"...\"}. "
+                    + "delay=batch — одна задержка на пакет (распределение register-batch, без него — register), "
+                    + "item — своя у каждого элемента, none — без задержки."
+    )
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> registerBatch(
+            HttpServletRequest request,
+            @RequestParam(required = false) @Schema(description = "Модель задержки: batch, item или none", example = "batch") String delay
+    ) throws IOException {
+        Delay batchDelay = delay != null ? Delay.parse(delay) : batchService.getDefaultDelay();
+        InputStream input = request.getInputStream();
+        // Место у ограничителя — до начала ответа, чтобы отказ вернулся кодом 429/503
+        Permit permit = batchService.admit(Kind.REGISTER);
+        releaseOnCompletion(request, permit);
+        // Задержка пакета — до запуска тела ответа: в режиме async она не занимает поток пула Spring MVC
+        return batchService.delay(permit, batchDelay).thenApply(ignored -> stream(out -> {
+            Summary summary = batchService.register(input, batchDelay, permit, result -> write(out, result));
+            requestLog.info(Action.REGISTER, "register_batch", "items", Integer.toString(summary.items()));
+        }));
+    }
+
+    // Эндпоинт для пакетной проверки паролей
+    @PostMapping(value = "/login/batch", consumes = {"application/x-ndjson", "application/json", "text/plain"})
+    @Operation(
+            summary = "Пакетная проверка паролей (NDJSON)",
+            description = "Принимает поток строк {\"username\":\"user1\",\"password\":\"pass1\"} и возвращает поток "
+                    + "результатов по мере готовности: outcome=success — пароль верный, failure — неверный логин или пароль. "
+                    + "session=true — для верных пар создается сессия, токен — в поле token. "
+                    + "delay — как у пакетной регистрации (распределение login-batch, без него — login)."
+    )
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> loginBatch(
+            HttpServletRequest request,
+            @RequestParam(required = false) @Schema(description = "Модель задержки: batch, item или none", example = "batch") String delay,
+            @RequestParam(defaultValue = "false") @Schema(description = "Создавать сессии для верных пар", example = "false") boolean session
+    ) throws IOException {
+        Delay batchDelay = delay != null ? Delay.parse(delay) : batchService.getDefaultDelay();
+        InputStream input = request.getInputStream();
+        Permit permit = batchService.admit(Kind.LOGIN);
+        releaseOnCompletion(request, permit);
+        return batchService.delay(permit, batchDelay).thenApply(ignored -> stream(out -> {
+            Summary summary = batchService.login(input, batchDelay, session, permit, result -> write(out, result));
+            requestLog.info(Action.LOGIN, "login_batch", "items", Integer.toString(summary.items()));
+        }));
+    }
+
+    // Результаты уходят клиенту сразу: каждая строка дописывается и сбрасывается в сокет
+    private static ResponseEntity<StreamingResponseBody> stream(StreamingResponseBody body) {
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    /**
+     * Место пакета освобождается и тогда, когда тело ответа так и не запустилось: клиент отключился
+     * во время задержки, истек таймаут асинхронного запроса. Обычно его раньше освобождает сама обработка.
+     */
+    private void releaseOnCompletion(HttpServletRequest request, Permit permit) {
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        // Ожидание задержки (CompletableFuture) — прерывается таймаутом или ошибкой соединения
+        asyncManager.registerDeferredResultInterceptor(PERMIT_INTERCEPTOR, new DeferredResultProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest webRequest, DeferredResult<T> deferredResult) {
+                batchService.release(permit);
+            }
+        });
+        // Потоковый ответ — задача могла не начаться до таймаута
+        asyncManager.registerCallableInterceptor(PERMIT_INTERCEPTOR, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                batchService.release(permit);
+            }
+        });
+    }
+
+    private void write(OutputStream out, ItemResult result) {
+        try {
+            out.write(resultWriter.writeValueAsBytes(result));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            // Клиент закрыл соединение — прерываем чтение пакета
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Ограничитель пропускной способности: превышение частоты — 429, нет места в очереди — 503
+    @ExceptionHandler(CapacityExceededException.class)
+    public ResponseEntity<String> handleCapacityExceeded(CapacityExceededException e) {
+        HttpStatus status = e.getReason() == CapacityExceededException.Reason.RATE
+                ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("❌ Ошибка: Сервис перегружен, повторите попытку позже");
+    }
+
+    // Неизвестная модель задержки — 400
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleBadRequest(IllegalArgumentException e) {
+        return "❌ Ошибка: " + e.getMessage();
+    }
+}
@@ -0,0 +1,130 @@
+package com.bankapp.auth.controller;
+
+// Импорты необходимых библиотек и классов
+import com.bankapp.auth.model.Client; // Пользователь, которому принадлежит сессия
+import com.bankapp.auth.service.AuthService; // Та же проверка сессии, ограничения и метрики, что у AuthController
+import com.bankapp.auth.service.CustomMetricsService.Action; // Эндпоинт (тег action в журнале запросов)
+import com.bankapp.auth.service.RequestLogService; // Тот же журнал запросов, что у AuthController
+import com.bankapp.auth.util.CapacityExceededException; // Отказ ограничителя пропускной способности
+import com.bankapp.auth.util.SessionManager; // Таблица сессий
+import jakarta.servlet.http.Cookie; // Cookie с токеном сессии
+import jakarta.servlet.http.HttpServlet; // Сервлет без DispatcherServlet и привязки параметров
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty; // Включение по настройке
+import org.springframework.boot.web.servlet.ServletRegistrationBean; // Регистрация сервлета на точные пути
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders; // Имена стандартных HTTP-заголовков
+import org.springframework.http.HttpStatus; // Коды HTTP-ответов
+import org.springframework.web.filter.ServerHttpObservationFilter; // Наблюдение запроса (тег uri в http.server.requests)
+import org.springframework.web.servlet.HandlerMapping; // Атрибут с шаблоном пути, как у DispatcherServlet
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets; // Кодировка ответов
+
+/**
+ * Быстрый путь для частых проверок сессии: GET /auth/isLogged и GET /auth/user
+ * (auth.fastpath.enabled=true). Сервлет зарегистрирован на точные пути, поэтому такие запросы
+ * не проходят через DispatcherServlet, поиск обработчика по аннотациям и конвертеры сообщений.
+ * Постоянные ответы закодированы в UTF-8 один раз при старте, на запрос кодируется только логин.
+ * Ответы, строки журнала запросов, метрики и ограничения пропускной способности те же, что у AuthController;
+ * фильтры (метрики http.server.requests, журнал HTTP-обменов) по-прежнему применяются, а путь запроса
+ * передается им как шаблон — тег uri тот же, что при обработке через DispatcherServlet.
+ */
+public class FastAuthServlet extends HttpServlet {
+
+    static final String IS_LOGGED_PATH = "/auth/isLogged"; // Путь проверки статуса
+    static final String USER_PATH = "/auth/user"; // Путь получения логина
+
+    // Тип содержимого совпадает с тем, что отдает AuthController для строк
+    private static final String CONTENT_TYPE = "text/plain;charset=UTF-8";
+
+    // Заранее закодированные постоянные ответы
+    private static final byte[] LOGGED_IN = SessionManager.statusOf(true).getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NOT_LOGGED_IN = SessionManager.statusOf(false).getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NOT_AUTHORIZED = "❌ Ошибка: Пользователь не авторизован".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] OVERLOADED = "❌ Ошибка: Сервис перегружен, повторите попытку позже".getBytes(StandardCharsets.UTF_8);
+
+    private final AuthService authService; // Проверка сессии с ограничениями пропускной способности и метриками
+    private final RequestLogService requestLog; // Журнал запросов: запись в отдельном потоке
+
+    public FastAuthServlet(AuthService authService, RequestLogService requestLog) {
+        this.authService = authService;
+        this.requestLog = requestLog;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Сервлет зарегистрирован только на два точных пути
+        boolean isLogged = IS_LOGGED_PATH.equals(request.getServletPath());
+        String path = isLogged ? IS_LOGGED_PATH : USER_PATH;
+        // Без DispatcherServlet шаблон пути для тега uri никто не задаст (иначе uri=UNKNOWN)
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, path);
+        ServerHttpObservationFilter.findObservationContext(request).ifPresent(context -> context.setPathPattern(path));
+        String token = resolveToken(request);
+        byte[] body;
+        try {
+            if (isLogged) {
+                requestLog.info(Action.IS_LOGGED, "is_logged");
+                // Проверяем сессию одним обращением к таблице и отдаем готовый ответ
+                body = authService.isLoggedIn(token) ? LOGGED_IN : NOT_LOGGED_IN;
+            } else {
+                requestLog.info(Action.GET_USER, "get_user");
+                // Логин — единственный ответ, который кодируется на каждый запрос
+                Client client = authService.getUser(token);
+                body = client != null ? client.getUsername().getBytes(StandardCharsets.UTF_8) : NOT_AUTHORIZED;
+            }
+        } catch (CapacityExceededException e) {
+            // Отказ ограничителя: превышение частоты — 429, нет места в очереди — 503
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            write(response, e.getReason() == CapacityExceededException.Reason.RATE
+                    ? HttpStatus.TOO_MANY_REQUESTS.value() : HttpStatus.SERVICE_UNAVAILABLE.value(), OVERLOADED);
+            return;
+        }
+        write(response, HttpServletResponse.SC_OK, body);
+    }
+
+    // Записывает готовое тело ответа с известной длиной
+    private static void write(HttpServletResponse response, int status, byte[] body) throws IOException {
+        response.setStatus(status);
+        response.setContentType(CONTENT_TYPE);
+        response.setContentLength(body.length);
+        OutputStream out = response.getOutputStream();
+        out.write(body);
+    }
+
+    // Токен из заголовка имеет приоритет над cookie
+    private static String resolveToken(HttpServletRequest request) {
+        String token = request.getHeader(SessionManager.TOKEN_HEADER);
+        if (token != null && !token.isEmpty()) {
+            return token;
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (SessionManager.TOKEN_COOKIE.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+}
+
+// Регистрация быстрого пути; точные пути сервлета имеют приоритет над DispatcherServlet ("/")
+@Configuration
+@ConditionalOnProperty(name = "auth.fastpath.enabled", havingValue = "true")
+class FastAuthServletConfiguration {
+
+    @Bean
+    public ServletRegistrationBean<FastAuthServlet> fastAuthServlet(AuthService authService, RequestLogService requestLog) {
+        ServletRegistrationBean<FastAuthServlet> registration = new ServletRegistrationBean<>(
+                new FastAuthServlet(authService, requestLog),
+                FastAuthServlet.IS_LOGGED_PATH, FastAuthServlet.USER_PATH);
+        registration.setName("fastAuthServlet");
+        registration.setLoadOnStartup(1);
+        return registration;
+    }
+}
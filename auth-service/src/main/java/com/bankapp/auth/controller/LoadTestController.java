@@ -0,0 +1,90 @@
+package com.bankapp.auth.controller;
+
+// Импорты необходимых библиотек и классов
+import com.bankapp.auth.service.LoadGeneratorService; // Встроенный генератор нагрузки
+import com.bankapp.auth.service.LoadGeneratorService.Model;
+import com.bankapp.auth.service.LoadGeneratorService.Profile;
+import com.bankapp.auth.service.LoadGeneratorService.Report;
+import io.swagger.v3.oas.annotations.Operation; // Аннотации Swagger для документирования API
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty; // Контроллер есть только при включенном генераторе
+import org.springframework.boot.convert.DurationStyle; // Разбор длительностей вида 30s
+import org.springframework.http.HttpStatus; // Коды HTTP-ответов
+import org.springframework.http.ResponseEntity; // Ответ с кодом состояния
+import org.springframework.web.bind.annotation.*; // Аннотации для создания REST-эндпоинтов
+
+import java.util.concurrent.CompletableFuture;
+
+// REST-контроллер встроенного генератора нагрузки (auth.loadgen.enabled=true)
+@RestController
+// Все эндпоинты начинаются с "/admin/loadtest"
+@RequestMapping("/admin/loadtest")
+@ConditionalOnProperty(name = "auth.loadgen.enabled", havingValue = "true")
+// Документируем контроллер в Swagger
+@Tag(name = "Нагрузочный тест", description = "Проверка производительности самого мока по loopback")
+public class LoadTestController {
+
+    private final LoadGeneratorService loadGenerator; // Генератор нагрузки
+
+    public LoadTestController(LoadGeneratorService loadGenerator) {
+        this.loadGenerator = loadGenerator;
+    }
+
+    // Эндпоинт для запуска прогона
+    @PostMapping
+    @Operation(
+            summary = "Запустить нагрузочный тест",
+            description = "Гоняет сценарий register → login → isLogged → user против этого же сервиса. "
+                    + "model=open — сценарии стартуют с частотой rate в секунду, model=closed — concurrency "
+                    + "пользователей без пауз. Задержки — HdrHistogram с поправкой на coordinated omission. "
+                    + "wait=true — ответ придет по окончании прогона (не дольше spring.mvc.async.request-timeout)."
+    )
+    public CompletableFuture<Report> start(
+            @RequestParam(defaultValue = "open") @Schema(description = "Модель нагрузки: open или closed", example = "open") String model,
+            @RequestParam(defaultValue = "100") @Schema(description = "Сценариев в секунду (open)", example = "100") double rate,
+            @RequestParam(defaultValue = "16") @Schema(description = "Параллельных пользователей (closed)", example = "16") int concurrency,
+            @RequestParam(defaultValue = "30s") @Schema(description = "Длительность замера", example = "30s") String duration,
+            @RequestParam(defaultValue = "5s") @Schema(description = "Прогрев без записи результатов", example = "5s") String warmup,
+            @RequestParam(defaultValue = "1000") @Schema(description = "Количество регистрируемых логинов", example = "1000") int users,
+            @RequestParam(defaultValue = "10000") @Schema(description = "Предел одновременных сценариев (open)", example = "10000") int maxInFlight,
+            @RequestParam(defaultValue = "false") @Schema(description = "Дождаться окончания прогона", example = "false") boolean wait
+    ) {
+        // Длительности в формате 30s, 2m или ISO-8601 (PT30S), как в application.properties
+        Profile profile = new Profile(Model.valueOf(model.trim().toUpperCase()), rate, concurrency,
+                DurationStyle.detectAndParse(duration), DurationStyle.detectAndParse(warmup), users, maxInFlight);
+        CompletableFuture<Report> finished = loadGenerator.start(profile);
+        // Без ожидания сразу возвращаем промежуточный отчет
+        return wait ? finished : CompletableFuture.completedFuture(loadGenerator.report());
+    }
+
+    // Эндпоинт для получения отчета текущего или последнего прогона
+    @GetMapping
+    @Operation(summary = "Отчет нагрузочного теста", description = "Промежуточный отчет во время прогона или итог последнего.")
+    public ResponseEntity<Report> report() {
+        Report report = loadGenerator.report();
+        return report != null ? ResponseEntity.ok(report) : ResponseEntity.notFound().build();
+    }
+
+    // Эндпоинт для остановки прогона
+    @DeleteMapping
+    @Operation(summary = "Остановить нагрузочный тест", description = "Прекращает запуск новых сценариев; начатые дожидаются ответа.")
+    public ResponseEntity<Report> stop() {
+        Report report = loadGenerator.stop();
+        return report != null ? ResponseEntity.ok(report) : ResponseEntity.notFound().build();
+    }
+
+    // Некорректные параметры прогона возвращаются клиенту как 400 Bad Request
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleIllegalArgument(IllegalArgumentException e) {
+        return "❌ Ошибка: " + e.getMessage();
+    }
+
+    // Предыдущий прогон еще идет
+    @ExceptionHandler(IllegalStateException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public String handleAlreadyRunning(IllegalStateException e) {
+        return "❌ Ошибка: " + e.getMessage();
+    }
+}
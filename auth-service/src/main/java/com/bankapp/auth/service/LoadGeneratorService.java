@@ -0,0 +1,368 @@
+package com.bankapp.auth.service;
+
+import com.bankapp.auth.util.SessionManager;
+import jakarta.annotation.PreDestroy;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Встроенный генератор нагрузки (auth.loadgen.enabled=true) для проверки самого мока.
+ * Каждый сценарий — register (для первых users сценариев), login, isLogged, user по loopback.
+ * Открытая модель запускает сценарии с постоянной частотой rate независимо от ответов,
+ * закрытая — concurrency пользователей друг за другом без пауз.
+ * Задержки пишутся в HdrHistogram дважды: от запланированного момента старта (с поправкой на
+ * coordinated omission — если генератор или сервис не успевают, ожидание входит в задержку)
+ * и от фактической отправки (время обслуживания).
+ */
+@Service
+@ConditionalOnProperty(name = "auth.loadgen.enabled", havingValue = "true")
+public class LoadGeneratorService {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadGeneratorService.class);
+    private static final long HIGHEST_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final String PASSWORD = "loadgen-password";
+
+    public enum Model { OPEN, CLOSED }
+
+    public enum State { RUNNING, FINISHED, STOPPED }
+
+    enum Step {
+        REGISTER("register"), LOGIN("login"), IS_LOGGED("isLogged"), USER("user");
+
+        private final String tag;
+
+        Step(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * Параметры прогона. rate — сценариев в секунду (открытая модель), concurrency — пользователей
+     * (закрытая модель), users — сколько разных логинов регистрируется, maxInFlight — предел
+     * одновременно выполняемых сценариев в открытой модели.
+     */
+    public record Profile(Model model, double rate, int concurrency, Duration duration, Duration warmup,
+                          int users, int maxInFlight) {
+    }
+
+    // Процентили в миллисекундах
+    public record Latency(double p50, double p90, double p99, double p999, double max) {
+    }
+
+    public record StepReport(long count, long errors, Latency responseTime, Latency serviceTime) {
+    }
+
+    public record Report(String runId, State state, Profile profile, double measuredSeconds, long scenarios,
+                         double scenariosPerSecond, double requestsPerSecond, Map<String, StepReport> steps) {
+    }
+
+    private final Environment environment;
+    private final String target;
+    private final Duration requestTimeout;
+    private final ExecutorService clientExecutor;
+    private final HttpClient client;
+    private final AtomicReference<Run> current = new AtomicReference<>();
+
+    public LoadGeneratorService(Environment environment,
+                                @Value("${auth.loadgen.target:}") String target,
+                                @Value("${auth.loadgen.request-timeout:2m}") Duration requestTimeout,
+                                @Value("${auth.loadgen.client-threads:0}") int clientThreads) {
+        this.environment = environment;
+        this.target = target;
+        this.requestTimeout = requestTimeout;
+        int threads = clientThreads > 0 ? clientThreads : Runtime.getRuntime().availableProcessors();
+        this.clientExecutor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "auth-loadgen-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Запускает прогон; одновременно выполняется только один.
+     * Возвращает future, который завершится итоговым отчетом.
+     */
+    public CompletableFuture<Report> start(Profile profile) {
+        validate(profile);
+        Run run = new Run(profile, baseUri());
+        Run previous = current.get();
+        if ((previous != null && previous.state == State.RUNNING) || !current.compareAndSet(previous, run)) {
+            throw new IllegalStateException("Another load test is still running");
+        }
+        log.info("Starting load test {}: {}", run.id, profile);
+        Thread driver = new Thread(run::drive, "auth-loadgen-driver");
+        driver.setDaemon(true);
+        driver.start();
+        return run.done;
+    }
+
+    // Отчет текущего или последнего прогона (во время прогона — промежуточный)
+    public Report report() {
+        Run run = current.get();
+        return run != null ? run.report() : null;
+    }
+
+    // Останавливает текущий прогон; уже отправленные запросы дожидаются ответа
+    public Report stop() {
+        Run run = current.get();
+        if (run == null) {
+            return null;
+        }
+        run.stopRequested = true;
+        return run.report();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stop();
+        clientExecutor.shutdownNow();
+    }
+
+    private static void validate(Profile profile) {
+        if (profile.model() == Model.OPEN && profile.rate() <= 0) {
+            throw new IllegalArgumentException("rate must be positive for the open model");
+        }
+        if (profile.model() == Model.CLOSED && profile.concurrency() <= 0) {
+            throw new IllegalArgumentException("concurrency must be positive for the closed model");
+        }
+        if (profile.users() <= 0 || profile.maxInFlight() <= 0 || profile.duration().isNegative()
+                || profile.duration().isZero()) {
+            throw new IllegalArgumentException("users, maxInFlight and duration must be positive");
+        }
+    }
+
+    private String baseUri() {
+        if (target != null && !target.isBlank()) {
+            return target.endsWith("/") ? target.substring(0, target.length() - 1) : target;
+        }
+        return "http://127.0.0.1:" + environment.getProperty("local.server.port", "8082");
+    }
+
+    // Один прогон: счетчики, гистограммы и логика обеих моделей нагрузки
+    private final class Run {
+
+        final String id = Long.toString(System.currentTimeMillis(), 36);
+        final Profile profile;
+        final String baseUri;
+        final String usernamePrefix;
+        final CompletableFuture<Report> done = new CompletableFuture<>();
+        final Histogram[] responseTime = new Histogram[Step.values().length];
+        final Histogram[] serviceTime = new Histogram[Step.values().length];
+        final LongAdder[] errors = new LongAdder[Step.values().length];
+        final LongAdder scenarios = new LongAdder();
+        final long startNanos = System.nanoTime();
+        final long warmupEndNanos;
+        final long endNanos;
+        volatile long finishedNanos;
+        volatile State state = State.RUNNING;
+        volatile boolean stopRequested;
+
+        Run(Profile profile, String baseUri) {
+            this.profile = profile;
+            this.baseUri = baseUri;
+            this.usernamePrefix = "loadgen-" + id + "-";
+            this.warmupEndNanos = startNanos + profile.warmup().toNanos();
+            this.endNanos = warmupEndNanos + profile.duration().toNanos();
+            for (Step step : Step.values()) {
+                responseTime[step.ordinal()] = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+                serviceTime[step.ordinal()] = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+                errors[step.ordinal()] = new LongAdder();
+            }
+        }
+
+        void drive() {
+            try {
+                if (profile.model() == Model.OPEN) {
+                    driveOpen();
+                } else {
+                    driveClosed();
+                }
+                state = stopRequested ? State.STOPPED : State.FINISHED;
+            } catch (RuntimeException | InterruptedException e) {
+                log.warn("Load test {} failed", id, e);
+                state = State.STOPPED;
+            } finally {
+                finishedNanos = System.nanoTime();
+                Report report = report();
+                log.info("Load test {} {}: {} scenarios, {} scenarios/s", id, state, report.scenarios(),
+                        String.format("%.1f", report.scenariosPerSecond()));
+                done.complete(report);
+            }
+        }
+
+        // Открытая модель: сценарий i стартует в момент start + i / rate, даже если предыдущие еще идут
+        void driveOpen() throws InterruptedException {
+            long intervalNanos = (long) (1e9 / profile.rate());
+            Semaphore inFlight = new Semaphore(profile.maxInFlight());
+            for (long i = 0; !stopRequested; i++) {
+                long intended = startNanos + i * intervalNanos;
+                if (intended >= endNanos) {
+                    break;
+                }
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                // Если лимит исчерпан, ожидание войдет в задержку сценария (отсчет от intended)
+                inFlight.acquire();
+                scenario(i, intended).whenComplete((ignored, error) -> inFlight.release());
+            }
+            inFlight.acquire(profile.maxInFlight());
+        }
+
+        // Закрытая модель: concurrency пользователей, каждый запускает следующий сценарий после ответа
+        void driveClosed() {
+            AtomicLong sequence = new AtomicLong();
+            CompletableFuture<?>[] users = new CompletableFuture<?>[profile.concurrency()];
+            for (int i = 0; i < users.length; i++) {
+                CompletableFuture<Void> finished = new CompletableFuture<>();
+                loop(sequence, finished);
+                users[i] = finished;
+            }
+            CompletableFuture.allOf(users).join();
+        }
+
+        void loop(AtomicLong sequence, CompletableFuture<Void> finished) {
+            long now = System.nanoTime();
+            if (stopRequested || now >= endNanos) {
+                finished.complete(null);
+                return;
+            }
+            scenario(sequence.getAndIncrement(), now).whenComplete((ignored, error) -> loop(sequence, finished));
+        }
+
+        // register (только при первом проходе по пользователю), login, isLogged, user
+        CompletableFuture<Void> scenario(long index, long intendedNanos) {
+            String username = usernamePrefix + (index % profile.users());
+            CompletableFuture<HttpResponse<Void>> registered = index < profile.users()
+                    ? send(Step.REGISTER, post("/auth/register", "fullName=" + encode("Load Test")
+                    + "&phone=%2B79000000000&username=" + encode(username) + "&password=" + PASSWORD), intendedNanos)
+                    : CompletableFuture.completedFuture(null);
+            return registered.thenCompose(ignored -> send(Step.LOGIN,
+                            post("/auth/login", "username=" + encode(username) + "&password=" + PASSWORD),
+                            index < profile.users() ? System.nanoTime() : intendedNanos))
+                    .thenCompose(response -> {
+                        String token = response != null
+                                ? response.headers().firstValue(SessionManager.TOKEN_HEADER).orElse(null) : null;
+                        if (token == null) {
+                            // Вход не удался — дальше по сценарию идти не с чем
+                            countError(Step.LOGIN);
+                            return CompletableFuture.completedFuture(null);
+                        }
+                        return send(Step.IS_LOGGED, get("/auth/isLogged", token), System.nanoTime())
+                                .thenCompose(ignored -> send(Step.USER, get("/auth/user", token), System.nanoTime()));
+                    })
+                    .handle((ignored, error) -> {
+                        if (System.nanoTime() >= warmupEndNanos) {
+                            scenarios.increment();
+                        }
+                        return null;
+                    });
+        }
+
+        // Отправляет запрос и записывает задержки; future всегда завершается успешно (null при ошибке)
+        CompletableFuture<HttpResponse<Void>> send(Step step, HttpRequest request, long intendedNanos) {
+            long sentNanos = System.nanoTime();
+            return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        long now = System.nanoTime();
+                        if (now >= warmupEndNanos) {
+                            responseTime[step.ordinal()].recordValue(toMicros(now - intendedNanos));
+                            serviceTime[step.ordinal()].recordValue(toMicros(now - sentNanos));
+                        }
+                        boolean failed = error != null || response.statusCode() >= 400;
+                        if (failed) {
+                            countError(step);
+                        }
+                        return failed ? null : response;
+                    });
+        }
+
+        void countError(Step step) {
+            if (System.nanoTime() >= warmupEndNanos) {
+                errors[step.ordinal()].increment();
+            }
+        }
+
+        HttpRequest post(String path, String form) {
+            return HttpRequest.newBuilder(URI.create(baseUri + path))
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form))
+                    .build();
+        }
+
+        HttpRequest get(String path, String token) {
+            return HttpRequest.newBuilder(URI.create(baseUri + path))
+                    .timeout(requestTimeout)
+                    .header(SessionManager.TOKEN_HEADER, token)
+                    .GET()
+                    .build();
+        }
+
+        Report report() {
+            long end = finishedNanos != 0 ? finishedNanos : System.nanoTime();
+            double seconds = Math.max(end - warmupEndNanos, 0) / 1e9;
+            Map<String, StepReport> steps = new LinkedHashMap<>();
+            long requests = 0;
+            for (Step step : Step.values()) {
+                Histogram response = responseTime[step.ordinal()].copy();
+                Histogram service = serviceTime[step.ordinal()].copy();
+                requests += response.getTotalCount();
+                steps.put(step.tag, new StepReport(response.getTotalCount(), errors[step.ordinal()].sum(),
+                        latency(response), latency(service)));
+            }
+            long completed = scenarios.sum();
+            return new Report(id, state, profile, seconds, completed, seconds > 0 ? completed / seconds : 0,
+                    seconds > 0 ? requests / seconds : 0, steps);
+        }
+    }
+
+    private static Latency latency(Histogram histogram) {
+        return new Latency(millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(Math.max(nanos / 1_000, 0), HIGHEST_MICROS);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
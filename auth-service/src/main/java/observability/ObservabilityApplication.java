@@ -0,0 +1,29 @@
+package observability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.context.event.EventListener;
+
+@SpringBootApplication(scanBasePackages = {"observability", "com.bankapp.auth"})
+@ImportRuntimeHints(ObservabilityRuntimeHints.class)
+public class ObservabilityApplication {
+
+    // Training run for the AppCDS archive (fast-start profile): start fully, then exit so the JVM dumps loaded classes
+    @Value("${auth.startup.exit-on-ready:false}")
+    private boolean exitOnReady;
+
+    public static void main(String[] args) {
+        System.out.println("This is it");
+        SpringApplication.run(ObservabilityApplication.class, args);
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        if (exitOnReady) {
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+}
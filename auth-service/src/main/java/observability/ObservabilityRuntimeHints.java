@@ -0,0 +1,23 @@
+package observability;
+
+import com.bankapp.auth.service.LoadGeneratorService;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Native-image hints for JSON that Spring cannot infer from handler signatures: load test reports wrapped in
+ * CompletableFuture, actuator summaries built from package-private records, and the swagger-ui webjar files
+ * that springdoc serves as static resources.
+ */
+class ObservabilityRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                LoadGeneratorService.Report.class, LoadGeneratorService.Profile.class,
+                LoadGeneratorService.StepReport.class, LoadGeneratorService.Latency.class,
+                SlowExchangesEndpoint.SlowExchange.class, ObservationStats.Summary.class);
+        hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/**");
+    }
+}
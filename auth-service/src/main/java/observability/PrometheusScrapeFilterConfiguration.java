@@ -0,0 +1,70 @@
+package observability;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Serves GET /actuator/prometheus from PrometheusScrapeCache.
+ * Scrapes filtered by includedNames still go to the actuator endpoint.
+ * Registered under the same conditions as the cache itself (see PrometheusScrapeCacheConfiguration).
+ */
+@Configuration
+@ConditionalOnProperty("observability.prometheus.refresh-interval")
+@ConditionalOnAvailableEndpoint(endpoint = PrometheusScrapeEndpoint.class)
+class PrometheusScrapeFilterConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<PrometheusScrapeFilter> prometheusScrapeFilter(
+            PrometheusScrapeCache cache,
+            @Value("${management.endpoints.web.base-path:/actuator}") String basePath) {
+        FilterRegistrationBean<PrometheusScrapeFilter> registration =
+                new FilterRegistrationBean<>(new PrometheusScrapeFilter(cache));
+        registration.addUrlPatterns(basePath + "/prometheus");
+        return registration;
+    }
+}
+
+class PrometheusScrapeFilter extends OncePerRequestFilter {
+
+    private final PrometheusScrapeCache cache;
+
+    PrometheusScrapeFilter(PrometheusScrapeCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || request.getParameter("includedNames") != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        PrometheusScrapeCache.Format format = PrometheusScrapeCache.Format.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        PrometheusScrapeCache.Snapshot snapshot = cache.get(format);
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = snapshot.gzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        byte[] body = gzip ? snapshot.gzip() : snapshot.body();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(format.contentType());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
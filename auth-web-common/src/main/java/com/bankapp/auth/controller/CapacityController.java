@@ -0,0 +1,90 @@
+package com.bankapp.auth.controller;
+
+// Импорты для работы с Swagger (документация API), Spring (REST-контроллер) и Java коллекциями
+import com.bankapp.auth.model.CapacityLimits; // Ограничения пропускной способности действия
+import com.bankapp.auth.service.CapacityService; // Ограничители частоты и параллельности по действиям
+import io.swagger.v3.oas.annotations.Operation; // Для описания эндпоинтов в Swagger
+import io.swagger.v3.oas.annotations.media.Schema; // Для описания параметров в Swagger
+import io.swagger.v3.oas.annotations.tags.Tag; // Для группировки эндпоинтов в Swagger
+import org.springframework.http.HttpStatus; // Код ответа для некорректных параметров
+import org.springframework.web.bind.annotation.*; // Аннотации Spring для создания REST API
+
+import java.util.Map; // Интерфейс для работы с коллекцией ограничений
+
+// Объявляем класс как REST-контроллер, который обрабатывает HTTP-запросы
+@RestController
+// Все эндпоинты начинаются с "/capacity" (например, /capacity/set)
+@RequestMapping("/capacity")
+// Документируем контроллер в Swagger
+@Tag(name = "Пропускная способность", description = "Эмуляция насыщения: ограничение частоты (429) и параллельности с очередью (503) по действиям")
+public class CapacityController {
+
+    private final CapacityService capacityService; // Ограничители и их метрики
+
+    public CapacityController(CapacityService capacityService) {
+        this.capacityService = capacityService;
+    }
+
+    // Эндпоинт для получения ограничений действия
+    @GetMapping("/get")
+    @Operation(summary = "Получить ограничения по действию", description = "Возвращает ограничения действия или пустой ответ, если их нет.")
+    public CapacityLimits getCapacity(@RequestParam @Schema(description = "Название действия", example = "login") String action) {
+        return capacityService.getLimits(action);
+    }
+
+    // Эндпоинт для установки ограничений действия
+    @PostMapping("/set")
+    @Operation(
+            summary = "Установить ограничения по действию",
+            description = "ratePerSecond/burst — ограничение частоты (сверх него 429), maxConcurrency — одновременных запросов, "
+                    + "maxQueue — ожидающих в очереди, queueTimeoutMs — предел ожидания (очередь полна или ожидание истекло — 503). "
+                    + "0 — без ограничения. Ожидание в очереди входит во время ответа."
+    )
+    public String setCapacity(
+            @RequestParam @Schema(description = "Название действия", example = "login") String action,
+            @RequestParam(defaultValue = "0") @Schema(description = "Запросов в секунду", example = "100") double ratePerSecond,
+            @RequestParam(defaultValue = "1") @Schema(description = "Запросов подряд без ограничения частоты", example = "20") int burst,
+            @RequestParam(defaultValue = "0") @Schema(description = "Одновременных запросов", example = "50") int maxConcurrency,
+            @RequestParam(defaultValue = "0") @Schema(description = "Мест в очереди ожидания", example = "200") int maxQueue,
+            @RequestParam(defaultValue = "0") @Schema(description = "Предел ожидания в очереди, мс", example = "5000") long queueTimeoutMs
+    ) {
+        CapacityLimits limits = new CapacityLimits(ratePerSecond, burst, maxConcurrency, maxQueue, queueTimeoutMs);
+        capacityService.setLimits(action, limits);
+        return "Ограничения для '" + action + "' установлены: " + limits;
+    }
+
+    // Эндпоинт для снятия ограничений действия
+    @PostMapping("/remove")
+    @Operation(summary = "Снять ограничения по действию", description = "Запросы, уже ожидающие в очереди, дождутся своего места.")
+    public String removeCapacity(@RequestParam @Schema(description = "Название действия", example = "login") String action) {
+        capacityService.removeLimits(action);
+        return "Ограничения для '" + action + "' сняты";
+    }
+
+    // Эндпоинт для получения всех ограничений с текущей загрузкой
+    @GetMapping("/all")
+    @Operation(summary = "Получить все ограничения", description = "Ограничения, число выполняющихся и ожидающих запросов по действиям.")
+    public Map<String, Map<String, Object>> getAllCapacities() {
+        return capacityService.snapshot();
+    }
+
+    // Эндпоинт для установки ограничений сразу для нескольких действий
+    @PostMapping("/all")
+    @Operation(
+            summary = "Установить ограничения для нескольких действий",
+            description = "Принимает JSON-карту действие → ограничения, например "
+                    + "{\"login\": {\"ratePerSecond\": 100, \"burst\": 20, \"maxConcurrency\": 50, \"maxQueue\": 200, \"queueTimeoutMs\": 5000}}."
+    )
+    public Map<String, Map<String, Object>> setAllCapacities(
+            @org.springframework.web.bind.annotation.RequestBody Map<String, CapacityLimits> limits) {
+        limits.forEach(capacityService::setLimits);
+        return getAllCapacities();
+    }
+
+    // Некорректные параметры возвращаются клиенту как 400 Bad Request
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleIllegalArgument(IllegalArgumentException e) {
+        return "❌ Ошибка: " + e.getMessage();
+    }
+}
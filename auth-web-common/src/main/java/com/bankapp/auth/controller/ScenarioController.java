@@ -0,0 +1,72 @@
+package com.bankapp.auth.controller;
+
+// Импорты для работы с Swagger (документация API), Spring (REST-контроллер) и Java коллекциями
+import com.bankapp.auth.model.LatencyScenario; // Сценарий изменения задержки во времени
+import com.bankapp.auth.service.LatencyScenarioService; // Проигрывание сценариев по таймеру
+import io.swagger.v3.oas.annotations.Operation; // Для описания эндпоинтов в Swagger
+import io.swagger.v3.oas.annotations.media.Schema; // Для описания параметров в Swagger
+import io.swagger.v3.oas.annotations.tags.Tag; // Для группировки эндпоинтов в Swagger
+import org.springframework.http.HttpStatus; // Код ответа для некорректных параметров
+import org.springframework.web.bind.annotation.*; // Аннотации Spring для создания REST API
+import java.util.Map; // Карта действие → сценарий
+
+// Объявляем класс как REST-контроллер, который обрабатывает HTTP-запросы
+@RestController
+// Все эндпоинты начинаются с "/timeout/scenario"
+@RequestMapping("/timeout/scenario")
+// Документируем контроллер в Swagger
+@Tag(name = "Сценарии задержек", description = "Воспроизводимое изменение задержек во времени: рост, всплески, синусоида")
+public class ScenarioController {
+
+    private final LatencyScenarioService scenarioService; // Сервис, проигрывающий сценарии
+
+    public ScenarioController(LatencyScenarioService scenarioService) {
+        this.scenarioService = scenarioService;
+    }
+
+    // Эндпоинт для запуска сценариев
+    @PostMapping
+    @Operation(
+            summary = "Запустить сценарии задержек",
+            description = "Принимает JSON-карту действие → сценарий и запускает их с текущего момента. "
+                    + "Участки идут друг за другом: hold (durationMs, valueMs), ramp (durationMs, fromMs, toMs; "
+                    + "без fromMs — от предыдущего значения), spike (durationMs, valueMs, riseMs — плавный подъем и спад, "
+                    + "затем возврат к предыдущему значению), sine (durationMs, baseMs, amplitudeMs, periodMs). "
+                    + "Значение сценария — номинальная задержка (медиана или среднее): текущее распределение действия "
+                    + "масштабируется с сохранением формы. loop — повторять по кругу, restore (по умолчанию true) — "
+                    + "вернуть исходное распределение по окончании. Пример: {\"login\": {\"segments\": ["
+                    + "{\"type\": \"ramp\", \"durationMs\": 600000, \"fromMs\": 50, \"toMs\": 2000}, "
+                    + "{\"type\": \"hold\", \"durationMs\": 300000, \"valueMs\": 2000}, "
+                    + "{\"type\": \"spike\", \"durationMs\": 30000, \"valueMs\": 8000, \"riseMs\": 1000}]}}."
+    )
+    public Map<String, LatencyScenarioService.EffectiveTimeout> startScenarios(
+            @org.springframework.web.bind.annotation.RequestBody Map<String, LatencyScenario> scenarios) {
+        return scenarioService.start(scenarios);
+    }
+
+    // Эндпоинт для получения действующих задержек
+    @GetMapping
+    @Operation(
+            summary = "Текущие значения задержек",
+            description = "Для каждого действия — номинальная задержка (мс) и распределение, действующие прямо сейчас, "
+                    + "и ход сценария (время с начала, номер и вид участка), если он запущен."
+    )
+    public Map<String, LatencyScenarioService.EffectiveTimeout> getEffectiveTimeouts() {
+        return scenarioService.status();
+    }
+
+    // Эндпоинт для остановки сценариев
+    @DeleteMapping
+    @Operation(summary = "Остановить сценарии", description = "Останавливает сценарий действия (без action — все) и возвращает исходные распределения.")
+    public Map<String, LatencyScenarioService.EffectiveTimeout> stopScenarios(
+            @RequestParam(required = false) @Schema(description = "Название действия", example = "login") String action) {
+        return scenarioService.stop(action);
+    }
+
+    // Некорректные параметры сценария возвращаются клиенту как 400 Bad Request
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleIllegalArgument(IllegalArgumentException e) {
+        return "❌ Ошибка: " + e.getMessage();
+    }
+}
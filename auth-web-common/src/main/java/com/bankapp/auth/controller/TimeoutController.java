@@ -0,0 +1,183 @@
+package com.bankapp.auth.controller;
+
+// Импорты для работы с Swagger (документация API), Spring (REST-контроллер) и Java коллекциями
+import com.bankapp.auth.model.LatencyDistribution; // Распределение задержки для действия
+import com.bankapp.auth.service.TimeoutService; // Распределения задержек по действиям
+import io.swagger.v3.oas.annotations.Operation; // Для описания эндпоинтов в Swagger
+import io.swagger.v3.oas.annotations.Parameter; // Для описания параметров в Swagger
+import io.swagger.v3.oas.annotations.media.Content; // Для описания тела запроса в Swagger
+import io.swagger.v3.oas.annotations.media.ExampleObject; // Для примеров запросов в Swagger
+import io.swagger.v3.oas.annotations.media.Schema; // Для описания схемы данных в Swagger
+import io.swagger.v3.oas.annotations.tags.Tag; // Для группировки эндпоинтов в Swagger
+import org.springframework.http.HttpStatus; // Код ответа для некорректных параметров
+import org.springframework.web.bind.annotation.*; // Аннотации Spring для создания REST API
+import java.util.Map; // Интерфейс для работы с коллекцией таймаутов
+
+// Объявляем класс как REST-контроллер, который обрабатывает HTTP-запросы
+@RestController
+// Все эндпоинты начинаются с "/timeout" (например, /timeout/get)
+@RequestMapping("/timeout")
+// Документируем контроллер в Swagger как группу "Таймауты"
+@Tag(name = "Таймауты", description = "Управление таймаутами (задержками) для различных действий пользователей: логин, регистрация, выход и др.")
+public class TimeoutController {
+
+    // Хранилище распределений задержек (общее с AuthController и сценариями задержек)
+    private final TimeoutService timeoutService;
+
+    // Конструктор, вызывается при создании объекта
+    public TimeoutController(TimeoutService timeoutService) {
+        this.timeoutService = timeoutService;
+    }
+
+    // Эндпоинт для получения таймаута для конкретного действия
+    @GetMapping("/get")
+    // Документируем эндпоинт в Swagger
+    @Operation(
+            summary = "Получить таймаут по действию",
+            description = "Возвращает номинальное значение таймаута (в секундах, с округлением) для указанного действия. "
+                    + "Для распределений это медиана или среднее, полное описание — в /timeout/all.",
+            parameters = {
+                    @Parameter(
+                            name = "action",
+                            description = "Название действия (например, login, register, logout)",
+                            example = "login",
+                            required = true
+                    )
+            }
+    )
+    public int getTimeout(@RequestParam String action) {
+        // Возвращаем таймаут для действия или 10 секунд, если действие не найдено
+        return (int) Math.round(timeoutService.getDistribution(action).nominalMillis() / 1000);
+    }
+
+    // Эндпоинт для установки нового таймаута для действия
+    @PostMapping("/set")
+    // Документируем эндпоинт в Swagger, включая пример запроса
+    @Operation(
+            summary = "Установить таймаут по действию",
+            description = "Позволяет задать таймаут в секундах (timeoutSeconds) или распределение задержки (type) для действия. "
+                    + "Типы: fixed (valueMs), uniform (minMs, maxMs), normal (meanMs, stdDevMs), "
+                    + "lognormal (medianMs, p99Ms), pareto (scaleMs, shape, maxMs), percentiles (table: \"50:40,99:900\"). "
+                    + "Все значения в миллисекундах, допускаются дробные.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Параметры запроса для установки таймаута",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/x-www-form-urlencoded",
+                            examples = {
+                                    @ExampleObject(
+                                            name = "Set Timeout Example",
+                                            summary = "Пример установки таймаута",
+                                            value = "action=login&timeoutSeconds=5"
+                                    ),
+                                    @ExampleObject(
+                                            name = "Log-normal Example",
+                                            summary = "Логнормальная задержка: p50 = 40 мс, p99 = 900 мс",
+                                            value = "action=login&type=lognormal&medianMs=40&p99Ms=900"
+                                    ),
+                                    @ExampleObject(
+                                            name = "Percentiles Example",
+                                            summary = "Задержка по таблице перцентилей",
+                                            value = "action=login&type=percentiles&table=50:40,90:200,99:900,100:2000"
+                                    )
+                            }
+                    )
+            )
+    )
+    public String setTimeout(
+            // Параметр: название действия (например, "login")
+            @RequestParam
+            @Schema(description = "Название действия (login, register, logout и т.д.)", example = "login")
+            String action,
+
+            // Параметр: значение таймаута в секундах (старый способ задания)
+            @RequestParam(required = false)
+            @Schema(description = "Значение таймаута в секундах", example = "5")
+            Integer timeoutSeconds,
+
+            // Параметры распределения
+            @RequestParam(required = false) @Schema(description = "Тип распределения", example = "lognormal") String type,
+            @RequestParam(required = false) @Schema(description = "fixed: задержка, мс", example = "40") Double valueMs,
+            @RequestParam(required = false) @Schema(description = "uniform: минимум, мс", example = "10") Double minMs,
+            @RequestParam(required = false) @Schema(description = "uniform/pareto: максимум, мс", example = "2000") Double maxMs,
+            @RequestParam(required = false) @Schema(description = "normal: среднее, мс", example = "100") Double meanMs,
+            @RequestParam(required = false) @Schema(description = "normal: стандартное отклонение, мс", example = "20") Double stdDevMs,
+            @RequestParam(required = false) @Schema(description = "lognormal: медиана, мс", example = "40") Double medianMs,
+            @RequestParam(required = false) @Schema(description = "lognormal: 99-й перцентиль, мс", example = "900") Double p99Ms,
+            @RequestParam(required = false) @Schema(description = "pareto: минимальное значение, мс", example = "30") Double scaleMs,
+            @RequestParam(required = false) @Schema(description = "pareto: показатель хвоста", example = "1.5") Double shape,
+            @RequestParam(required = false) @Schema(description = "percentiles: таблица перцентиль:мс", example = "50:40,99:900") String table
+    ) {
+        // Старый способ: целое число секунд
+        if (type == null) {
+            if (timeoutSeconds == null) {
+                throw new IllegalArgumentException("Either timeoutSeconds or type must be specified");
+            }
+            timeoutService.setDistribution(action, new LatencyDistribution.Fixed(timeoutSeconds * 1000d));
+            // Возвращаем подтверждение с указанием действия и нового таймаута
+            return "Таймаут для '" + action + "' установлен на " + timeoutSeconds + " секунд.";
+        }
+        // Собираем распределение из параметров запроса
+        LatencyDistribution distribution = switch (type.toLowerCase()) {
+            case "fixed" -> new LatencyDistribution.Fixed(require("valueMs", valueMs));
+            case "uniform" -> new LatencyDistribution.Uniform(require("minMs", minMs), require("maxMs", maxMs));
+            case "normal" -> new LatencyDistribution.Normal(require("meanMs", meanMs), require("stdDevMs", stdDevMs));
+            case "lognormal" -> new LatencyDistribution.LogNormal(require("medianMs", medianMs), require("p99Ms", p99Ms));
+            case "pareto" -> new LatencyDistribution.Pareto(require("scaleMs", scaleMs), require("shape", shape),
+                    maxMs != null ? maxMs : 0);
+            case "percentiles" -> {
+                if (table == null) {
+                    throw new IllegalArgumentException("Parameter 'table' is required for type percentiles");
+                }
+                yield LatencyDistribution.Percentiles.parse(table);
+            }
+            default -> throw new IllegalArgumentException("Unknown distribution type: " + type);
+        };
+        timeoutService.setDistribution(action, distribution);
+        return "Таймаут для '" + action + "' установлен: " + distribution;
+    }
+
+    // Эндпоинт для получения всех текущих таймаутов
+    @GetMapping("/all")
+    // Документируем эндпоинт в Swagger
+    @Operation(
+            summary = "Получить все текущие таймауты",
+            description = "Возвращает карту всех действий и распределений их задержек (значения в миллисекундах)."
+    )
+    public Map<String, LatencyDistribution> getAllTimeouts() {
+        // Возвращаем упорядоченную копию карты таймаутов
+        return timeoutService.getDistributions();
+    }
+
+    // Эндпоинт для установки распределений сразу для нескольких действий
+    @PostMapping("/all")
+    // Документируем эндпоинт в Swagger
+    @Operation(
+            summary = "Установить таймауты для нескольких действий",
+            description = "Принимает JSON-карту действие → распределение, например "
+                    + "{\"login\": {\"type\": \"lognormal\", \"medianMs\": 40, \"p99Ms\": 900}, "
+                    + "\"register\": {\"type\": \"uniform\", \"minMs\": 0.5, \"maxMs\": 3}}. "
+                    + "Значение null снимает задержку действия."
+    )
+    public Map<String, LatencyDistribution> setAllTimeouts(
+            @org.springframework.web.bind.annotation.RequestBody Map<String, LatencyDistribution> distributions) {
+        // Сохраняем все переданные распределения
+        timeoutService.setDistributions(distributions);
+        return getAllTimeouts();
+    }
+
+    // Некорректные параметры распределения возвращаются клиенту как 400 Bad Request
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleIllegalArgument(IllegalArgumentException e) {
+        return "❌ Ошибка: " + e.getMessage();
+    }
+
+    // Проверяем, что обязательный параметр распределения передан
+    private static double require(String name, Double value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Parameter '" + name + "' is required for this distribution type");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,160 @@
+package observability;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.web.exchanges.HttpExchange;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Aggregates observations into per-name, per-userType counters and latency histograms.
+ * Only sampled observations (observability.handler.sample-rate) and slow ones
+ * (observability.handler.slow-threshold) are logged.
+ */
+@Component
+class MyHandler implements ObservationHandler<Observation.Context> {
+
+    private static final Logger log = LoggerFactory.getLogger(MyHandler.class);
+    private static final Object START_NANOS = new Object();
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    // name -> userType -> stats; nested maps so that lookups do not allocate a composite key
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, ObservationStats>> stats = new ConcurrentHashMap<>();
+
+    MyHandler(@Value("${observability.handler.sample-rate:0}") double sampleRate,
+              @Value("${observability.handler.slow-threshold:1s}") Duration slowThreshold) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        context.put(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        Long start = context.get(START_NANOS);
+        if (start == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        String name = context.getName();
+        String userType = getUserTypeFromContext(context);
+        boolean error = context.getError() != null;
+        statsFor(name, userType).record(nanos, error);
+
+        if (nanos >= slowThresholdNanos) {
+            log.warn("Slow observation [{}], userType [{}], took {} ms", name, userType, nanos / 1_000_000);
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            log.info("Sampled observation [{}], userType [{}], took {} us, error [{}]", name, userType,
+                    nanos / 1_000, error);
+        }
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return true;
+    }
+
+    // Summary of everything observed since startup: name -> userType -> stats
+    Map<String, Map<String, ObservationStats.Summary>> snapshot() {
+        Map<String, Map<String, ObservationStats.Summary>> result = new TreeMap<>();
+        stats.forEach((name, byUserType) -> {
+            Map<String, ObservationStats.Summary> summaries = new TreeMap<>();
+            byUserType.forEach((userType, value) -> summaries.put(userType, value.summary()));
+            result.put(name, summaries);
+        });
+        return result;
+    }
+
+    private ObservationStats statsFor(String name, String userType) {
+        ConcurrentHashMap<String, ObservationStats> byUserType = stats.get(name);
+        if (byUserType == null) {
+            byUserType = stats.computeIfAbsent(name, key -> new ConcurrentHashMap<>());
+        }
+        ObservationStats value = byUserType.get(userType);
+        if (value == null) {
+            value = byUserType.computeIfAbsent(userType, key -> new ObservationStats());
+        }
+        return value;
+    }
+
+    private String getUserTypeFromContext(Observation.Context context) {
+        KeyValue userType = context.getLowCardinalityKeyValue("userType");
+        return userType != null ? userType.getValue() : UNKNOWN;
+    }
+}
+
+@Component
+@Endpoint(id = "observations")
+class ObservationsEndpoint {
+
+    private final MyHandler handler;
+
+    ObservationsEndpoint(MyHandler handler) {
+        this.handler = handler;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, ObservationStats.Summary>> observations() {
+        return handler.snapshot();
+    }
+}
+
+@Configuration
+class ActuatorHttpExchangesConfiguration {
+    @Bean
+    public RingBufferHttpExchangeRepository httpTraceRepository(
+            @Value("${observability.exchanges.capacity:4096}") int capacity,
+            @Value("${observability.exchanges.sample-rate:1}") double sampleRate,
+            @Value("${observability.exchanges.keep-slower-than:1s}") Duration keepSlowerThan)
+    {
+        return new RingBufferHttpExchangeRepository(capacity, sampleRate, keepSlowerThan);
+    }
+}
+
+@Component
+@Endpoint(id = "slowexchanges")
+class SlowExchangesEndpoint {
+
+    private final RingBufferHttpExchangeRepository repository;
+
+    SlowExchangesEndpoint(RingBufferHttpExchangeRepository repository) {
+        this.repository = repository;
+    }
+
+    // Example: /actuator/slowexchanges?path=/auth/login&window=1m&limit=10
+    @ReadOperation
+    public List<SlowExchange> slowest(@Nullable String path, @Nullable Duration window, @Nullable Integer limit) {
+        return repository.findSlowest(path, window, limit != null ? limit : 10).stream()
+                .map(SlowExchange::of)
+                .toList();
+    }
+
+    record SlowExchange(Instant timestamp, String method, String uri, int status, double timeTakenMs) {
+        static SlowExchange of(HttpExchange exchange) {
+            return new SlowExchange(exchange.getTimestamp(), exchange.getRequest().getMethod(),
+                    exchange.getRequest().getUri().toString(), exchange.getResponse().getStatus(),
+                    exchange.getTimeTaken().toNanos() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package observability;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-rendered /actuator/prometheus output.
+ * With a refresh interval, a background thread re-renders every format that has been scraped at least once,
+ * and scrapes are served from the last snapshot (optionally gzip-compressed once per render) as long as it is
+ * younger than the maximum staleness; an older snapshot is re-rendered on the scraping thread.
+ * Without a refresh interval every scrape renders, but concurrent scrapes share one render.
+ * Render time is published as prometheus_scrape_render_duration{format, stage}.
+ */
+public class PrometheusScrapeCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PrometheusScrapeCache.class);
+
+    // Exposition formats served by the actuator endpoint
+    public enum Format {
+        TEXT(TextFormat.CONTENT_TYPE_004), OPENMETRICS(TextFormat.CONTENT_TYPE_OPENMETRICS_100);
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        // Prometheus asks for OpenMetrics first and falls back to text 0.0.4, as the actuator endpoint negotiates
+        public static Format negotiate(String accept) {
+            return accept != null && accept.contains("application/openmetrics-text") ? OPENMETRICS : TEXT;
+        }
+    }
+
+    // gzip is null when precompression is off
+    public record Snapshot(byte[] body, byte[] gzip, long renderedAtNanos) {
+    }
+
+    private final PrometheusMeterRegistry registry;
+    private final long maxStalenessNanos;
+    private final boolean gzip;
+    private final AtomicReferenceArray<Snapshot> snapshots = new AtomicReferenceArray<>(Format.values().length);
+    private final Timer[] renderTimers = new Timer[Format.values().length];
+    private final Timer[] gzipTimers = new Timer[Format.values().length];
+    private final ScheduledExecutorService refresher;
+    // One render at a time; the buffers are reused between renders
+    private final ReentrantLock renderLock = new ReentrantLock();
+    private final ByteArrayOutputStream textBuffer = new ByteArrayOutputStream(64 * 1024);
+    private final ByteArrayOutputStream gzipBuffer = new ByteArrayOutputStream(16 * 1024);
+
+    public PrometheusScrapeCache(PrometheusMeterRegistry registry,
+                                 Duration refreshInterval, Duration maxStaleness, boolean gzip) {
+        this.registry = registry;
+        this.gzip = gzip;
+        // Without background refresh any snapshot is stale for the next scrape
+        this.maxStalenessNanos = refreshInterval.isZero() ? -1 : Math.max(maxStaleness.toNanos(), refreshInterval.toNanos());
+        for (Format format : Format.values()) {
+            String tag = format.name().toLowerCase();
+            renderTimers[format.ordinal()] = Timer.builder("prometheus_scrape_render_duration")
+                    .description("Time to render the Prometheus exposition and to gzip it")
+                    .tags("format", tag, "stage", "render")
+                    .register(registry);
+            gzipTimers[format.ordinal()] = Timer.builder("prometheus_scrape_render_duration")
+                    .description("Time to render the Prometheus exposition and to gzip it")
+                    .tags("format", tag, "stage", "gzip")
+                    .register(registry);
+        }
+        if (refreshInterval.isZero()) {
+            this.refresher = null;
+        } else {
+            this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "prometheus-scrape-cache");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = refreshInterval.toNanos();
+            refresher.scheduleWithFixedDelay(this::refresh, period, period, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Snapshot no older than the maximum staleness; renders on this thread if there is none
+    public Snapshot get(Format format) {
+        long requestedAt = System.nanoTime();
+        Snapshot snapshot = snapshots.get(format.ordinal());
+        if (snapshot != null && requestedAt - snapshot.renderedAtNanos() <= maxStalenessNanos) {
+            return snapshot;
+        }
+        renderLock.lock();
+        try {
+            // A render that started after this scrape arrived is fresh enough
+            snapshot = snapshots.get(format.ordinal());
+            if (snapshot != null && snapshot.renderedAtNanos() - requestedAt >= 0) {
+                return snapshot;
+            }
+            return render(format);
+        } finally {
+            renderLock.unlock();
+        }
+    }
+
+    private void refresh() {
+        for (Format format : Format.values()) {
+            if (snapshots.get(format.ordinal()) == null) {
+                continue;
+            }
+            renderLock.lock();
+            try {
+                render(format);
+            } catch (RuntimeException e) {
+                log.warn("Prometheus scrape cache refresh failed: {}", e.toString());
+            } finally {
+                renderLock.unlock();
+            }
+        }
+    }
+
+    // Caller holds renderLock
+    private Snapshot render(Format format) {
+        long start = System.nanoTime();
+        textBuffer.reset();
+        try {
+            Writer writer = new OutputStreamWriter(textBuffer, StandardCharsets.UTF_8);
+            registry.scrape(writer, format.contentType());
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] body = textBuffer.toByteArray();
+        long rendered = System.nanoTime();
+        renderTimers[format.ordinal()].record(rendered - start, TimeUnit.NANOSECONDS);
+
+        byte[] compressed = null;
+        if (gzip) {
+            gzipBuffer.reset();
+            try (GZIPOutputStream out = new GZIPOutputStream(gzipBuffer, 8192)) {
+                out.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            compressed = gzipBuffer.toByteArray();
+            gzipTimers[format.ordinal()].record(System.nanoTime() - rendered, TimeUnit.NANOSECONDS);
+        }
+        Snapshot snapshot = new Snapshot(body, compressed, start);
+        snapshots.set(format.ordinal(), snapshot);
+        return snapshot;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package observability;
+
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * PrometheusScrapeCache shared by both web stacks.
+ * auth-service serves it through a servlet filter, auth-reactive through a WebFilter.
+ * Opt-in: only when observability.prometheus.refresh-interval is set and the prometheus endpoint
+ * is enabled and exposed; otherwise the actuator endpoint answers as usual.
+ */
+@Configuration
+@ConditionalOnProperty("observability.prometheus.refresh-interval")
+@ConditionalOnAvailableEndpoint(endpoint = PrometheusScrapeEndpoint.class)
+class PrometheusScrapeCacheConfiguration {
+
+    @Bean
+    public PrometheusScrapeCache prometheusScrapeCache(
+            PrometheusMeterRegistry registry,
+            @Value("${observability.prometheus.refresh-interval:0}") Duration refreshInterval,
+            @Value("${observability.prometheus.max-staleness:5s}") Duration maxStaleness,
+            @Value("${observability.prometheus.gzip:true}") boolean gzip) {
+        return new PrometheusScrapeCache(registry, refreshInterval, maxStaleness, gzip);
+    }
+}
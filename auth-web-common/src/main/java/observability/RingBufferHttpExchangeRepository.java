@@ -0,0 +1,103 @@
+package observability;
+
+import org.springframework.boot.actuate.web.exchanges.HttpExchange;
+import org.springframework.boot.actuate.web.exchanges.HttpExchangeRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * HttpExchangeRepository backed by a fixed ring buffer.
+ * A writer claims a slot with one getAndIncrement and publishes the exchange with a volatile set,
+ * so adds never lock and the oldest exchanges are overwritten. Only a sampled share of exchanges is kept,
+ * except slow ones, which are always recorded. Queries walk the buffer in place without copying it.
+ */
+class RingBufferHttpExchangeRepository implements HttpExchangeRepository {
+
+    private static final Comparator<HttpExchange> BY_TIME_TAKEN = Comparator.comparing(HttpExchange::getTimeTaken);
+
+    private final AtomicReferenceArray<HttpExchange> slots;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+    private final double sampleRate;
+    private final Duration keepSlowerThan;
+
+    RingBufferHttpExchangeRepository(int capacity, double sampleRate, Duration keepSlowerThan) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.sampleRate = sampleRate;
+        this.keepSlowerThan = keepSlowerThan;
+    }
+
+    @Override
+    public void add(HttpExchange exchange) {
+        Duration timeTaken = exchange.getTimeTaken();
+        boolean slow = timeTaken != null && timeTaken.compareTo(keepSlowerThan) >= 0;
+        if (!slow && sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        slots.set((int) (sequence.getAndIncrement() & mask), exchange);
+    }
+
+    // Newest first, as InMemoryHttpExchangeRepository returns them
+    @Override
+    public List<HttpExchange> findAll() {
+        List<HttpExchange> result = new ArrayList<>();
+        long last = sequence.get();
+        for (long i = last - 1; i >= Math.max(0, last - slots.length()); i--) {
+            HttpExchange exchange = slots.get((int) (i & mask));
+            if (exchange != null) {
+                result.add(exchange);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Slowest exchanges, slowest first.
+     * pathPrefix — keep only requests whose path starts with it (null for all),
+     * window — keep only exchanges newer than now minus window (null for the whole buffer).
+     * Keeps a heap of at most limit elements while walking the buffer.
+     */
+    List<HttpExchange> findSlowest(String pathPrefix, Duration window, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        Instant since = window != null ? Instant.now().minus(window) : Instant.MIN;
+        PriorityQueue<HttpExchange> slowest = new PriorityQueue<>(limit + 1, BY_TIME_TAKEN);
+        for (int i = 0; i < slots.length(); i++) {
+            HttpExchange exchange = slots.get(i);
+            if (exchange == null || exchange.getTimeTaken() == null || exchange.getTimestamp().isBefore(since)) {
+                continue;
+            }
+            if (pathPrefix != null && !exchange.getRequest().getUri().getPath().startsWith(pathPrefix)) {
+                continue;
+            }
+            if (slowest.size() < limit) {
+                slowest.add(exchange);
+            } else if (BY_TIME_TAKEN.compare(exchange, slowest.peek()) > 0) {
+                slowest.poll();
+                slowest.add(exchange);
+            }
+        }
+        List<HttpExchange> result = new ArrayList<>(slowest);
+        result.sort(BY_TIME_TAKEN.reversed());
+        return result;
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    long recorded() {
+        return sequence.get();
+    }
+}